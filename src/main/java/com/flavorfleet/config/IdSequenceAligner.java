@@ -0,0 +1,57 @@
+package com.flavorfleet.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Orders, cart items, notifications and outbox events take their ids from pooled sequences (emulated with
+ * single-row tables on MySQL) instead of AUTO_INCREMENT, so Hibernate can batch their inserts.
+ * On startup each sequence is moved past the highest existing id plus one allocation block,
+ * which covers rows written before the switch and by other instances. The move is monotonic,
+ * so running it on every instance is safe.
+ * <p>
+ * This only keeps sequence ids clear of existing rows once no running instance inserts with
+ * AUTO_INCREMENT. An instance of the previous release can still take an id inside a block a
+ * sequence has already handed out (InnoDB moves its counter past every explicit id inserted), and
+ * the later insert of that id then fails. Stop every instance of the previous release before the
+ * first instance of this one starts; do not roll this switch out alongside them.
+ */
+@Component
+public class IdSequenceAligner {
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceAligner.class);
+    private static final int ALLOCATION_SIZE = 50;
+
+    // sequence table -> entity table
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "order_seq", "orders",
+            "cart_item_seq", "cart_items",
+            "notification_seq", "notifications",
+            "outbox_event_seq", "outbox_events");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Depends on the EntityManagerFactory so the schema update has created the sequence tables
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void alignSequences() {
+        SEQUENCES.forEach((sequence, table) -> {
+            String floor = "SELECT COALESCE(MAX(id), 0) + " + (ALLOCATION_SIZE + 1) + " FROM " + table;
+            int updated = jdbcTemplate.update(
+                    "UPDATE " + sequence + " SET next_val = GREATEST(next_val, (" + floor + "))");
+            if (updated == 0) {
+                jdbcTemplate.update("INSERT INTO " + sequence + " (next_val) " + floor);
+            }
+            Long next = jdbcTemplate.queryForObject("SELECT next_val FROM " + sequence, Long.class);
+            logger.info("Id sequence {} for {} starts at {}", sequence, table, next);
+        });
+    }
+}
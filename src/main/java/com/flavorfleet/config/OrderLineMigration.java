@@ -0,0 +1,117 @@
+package com.flavorfleet.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Order line items moved from {@code cart_items} (rows with an {@code order_id}) to
+ * {@code order_lines}. This moves historical rows over in batches, keeping their ids, on startup
+ * and then periodically, so rows still written by instances of the previous release during a
+ * rolling deploy are picked up too. Only one instance migrates at a time (MySQL named lock); the
+ * others skip the run. Each batch is copied and deleted in one transaction, and an id that already
+ * exists in {@code order_lines} fails the batch rather than dropping the row.
+ * <p>
+ * This release no longer reads or writes {@code cart_items.order_id} but leaves the column and its
+ * foreign key in place; they are dropped in a later release, once no running version writes them.
+ */
+@Component
+public class OrderLineMigration {
+    private static final Logger logger = LoggerFactory.getLogger(OrderLineMigration.class);
+    private static final int BATCH_SIZE = 10_000;
+    private static final String LOCK_NAME = "flavorfleet.order_line_migration";
+    private static final String LINE_COLUMNS = "id, order_id, item_id, name, price, quantity, image";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Depends on the EntityManagerFactory so the schema update has created order_lines first
+    public OrderLineMigration(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    @Scheduled(initialDelayString = "${orders.line-migration.interval-ms:300000}",
+               fixedDelayString = "${orders.line-migration.interval-ms:300000}")
+    public void migrate() {
+        if (!columnExists("cart_items", "order_id")) {
+            return;
+        }
+        // Named locks belong to a connection, so this one is held for the whole run
+        jdbcTemplate.execute((ConnectionCallback<Void>) lockConnection -> {
+            if (!namedLock(lockConnection, "SELECT GET_LOCK(?, 0)")) {
+                logger.info("Order line migration is running on another instance; skipping");
+                return null;
+            }
+            long moved = 0;
+            try {
+                int batch;
+                do {
+                    Integer count = transactionTemplate.execute(status -> moveBatch());
+                    batch = count != null ? count : 0;
+                    moved += batch;
+                } while (batch == BATCH_SIZE);
+            } catch (DataAccessException e) {
+                // The failed batch rolled back, so its rows are still in cart_items
+                logger.error("Order line migration stopped after {} row(s); batch left in cart_items", moved, e);
+            } finally {
+                if (moved > 0) {
+                    logger.info("Moved {} order line(s) from cart_items to order_lines", moved);
+                }
+                namedLock(lockConnection, "SELECT RELEASE_LOCK(?)");
+            }
+            return null;
+        });
+    }
+
+    private static boolean namedLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, LOCK_NAME);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getInt(1) == 1;
+            }
+        }
+    }
+
+    private int moveBatch() {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM cart_items WHERE order_id IS NOT NULL ORDER BY id LIMIT " + BATCH_SIZE, Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String in = "(" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")";
+        Object[] args = ids.toArray();
+        // Plain INSERT: an id already present in order_lines fails the batch instead of the row
+        // being skipped here and then deleted below
+        jdbcTemplate.update("INSERT INTO order_lines (" + LINE_COLUMNS + ") " +
+                "SELECT " + LINE_COLUMNS + " FROM cart_items WHERE id IN " + in, args);
+        jdbcTemplate.update("DELETE FROM cart_items WHERE id IN " + in, args);
+        return ids.size();
+    }
+
+    private boolean columnExists(String table, String column) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?",
+                Integer.class, table, column);
+        return count != null && count > 0;
+    }
+}
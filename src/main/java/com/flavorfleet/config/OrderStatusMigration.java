@@ -0,0 +1,88 @@
+package com.flavorfleet.config;
+
+import com.flavorfleet.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Order status moved from the free-text {@code orders.status} column to the compact
+ * {@code orders.status_code} column. On startup this relaxes the legacy column to NULL so new rows
+ * can omit it, and on startup and then periodically it fills {@code status_code} for rows written
+ * without one (in batches, so the table is never locked for long). The periodic run picks up rows
+ * still inserted by instances of the previous release during a rolling deploy; until then
+ * {@link com.flavorfleet.entity.Order#getStatus()} and the aggregate queries fall back to the
+ * legacy column. Only one instance backfills at a time (MySQL named lock); the others skip the run.
+ */
+@Component
+public class OrderStatusMigration {
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusMigration.class);
+    private static final int BATCH_SIZE = 10_000;
+    private static final String LOCK_NAME = "flavorfleet.order_status_migration";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Depends on the EntityManagerFactory so the schema update has added status_code first
+    public OrderStatusMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void relaxLegacyColumn() {
+        String nullable = jdbcTemplate.query(
+                "SELECT IS_NULLABLE FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'orders' AND COLUMN_NAME = 'status'",
+                result -> result.next() ? result.getString(1) : null);
+        if ("NO".equals(nullable)) {
+            jdbcTemplate.execute("ALTER TABLE orders MODIFY status VARCHAR(255) NULL");
+            logger.info("Legacy orders.status column relaxed to NULL");
+        }
+        migrate();
+    }
+
+    @Scheduled(initialDelayString = "${orders.status-migration.interval-ms:300000}",
+               fixedDelayString = "${orders.status-migration.interval-ms:300000}")
+    public void migrate() {
+        // Named locks belong to a connection, so this one is held for the whole run
+        jdbcTemplate.execute((ConnectionCallback<Void>) lockConnection -> {
+            if (!namedLock(lockConnection, "SELECT GET_LOCK(?, 0)")) {
+                logger.info("Order status backfill is running on another instance; skipping");
+                return null;
+            }
+            try {
+                long backfilled = 0;
+                int updated;
+                do {
+                    updated = jdbcTemplate.update("UPDATE orders SET status_code = " +
+                            OrderRepository.LEGACY_STATUS_CODE + " WHERE status_code IS NULL LIMIT " + BATCH_SIZE);
+                    backfilled += updated;
+                } while (updated == BATCH_SIZE);
+                if (backfilled > 0) {
+                    logger.info("Backfilled status_code for {} order(s)", backfilled);
+                }
+            } finally {
+                namedLock(lockConnection, "SELECT RELEASE_LOCK(?)");
+            }
+            return null;
+        });
+    }
+
+    private static boolean namedLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, LOCK_NAME);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getInt(1) == 1;
+            }
+        }
+    }
+}
@@ -1,16 +1,27 @@
 package com.flavorfleet.controller;
 
-import com.flavorfleet.dto.CategoryDTO;
+import com.flavorfleet.dto.MenuChangesDTO;
 import com.flavorfleet.dto.MenuItemDTO;
+import com.flavorfleet.dto.MenuPageDTO;
+import com.flavorfleet.dto.MenuVersionDTO;
+import com.flavorfleet.service.MenuJsonCache;
+import com.flavorfleet.service.MenuSearchIndex;
 import com.flavorfleet.service.MenuService;
+import com.flavorfleet.service.MenuSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.Collections;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/menu")
@@ -18,45 +29,192 @@ import java.util.List;
 public class MenuController {
 
     private static final Logger logger = LoggerFactory.getLogger(MenuController.class);
+    private static final byte[] EMPTY_LIST = "[]".getBytes(StandardCharsets.UTF_8);
+
     private final MenuService menuService;
+    private final MenuJsonCache menuJsonCache;
+    private final MenuSearchIndex menuSearchIndex;
+    private final CacheControl menuCacheControl;
 
-    public MenuController(MenuService menuService) {
+    public MenuController(MenuService menuService,
+                          MenuJsonCache menuJsonCache,
+                          MenuSearchIndex menuSearchIndex,
+                          @Value("${menu.cache.max-age-seconds:60}") long maxAgeSeconds) {
         this.menuService = menuService;
+        this.menuJsonCache = menuJsonCache;
+        this.menuSearchIndex = menuSearchIndex;
+        this.menuCacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+    }
+
+    @GetMapping("/version")
+    public ResponseEntity<MenuVersionDTO> getMenuVersion() {
+        MenuSnapshot snapshot = menuService.getMenuSnapshot();
+        return ResponseEntity.ok(new MenuVersionDTO(
+                menuService.getMenuEpoch(),
+                snapshot.getVersion(),
+                snapshot.getBuiltAt(),
+                snapshot.getItems().size(),
+                snapshot.getCategories().size()));
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<MenuChangesDTO> getMenuChanges(@RequestParam long since,
+                                                         @RequestParam(required = false) String epoch) {
+        logger.info("Fetching menu changes since version {} (epoch {})", since, epoch);
+        try {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .body(menuService.getMenuChanges(since, epoch));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamMenuChanges(@RequestParam(required = false) Long since,
+                                                        @RequestParam(required = false) String epoch,
+                                                        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        // EventSource reconnects to the same URL with the id ("epoch:version") of the last event it
+        // received, which is newer than the since/epoch it was opened with
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            int colon = lastEventId.lastIndexOf(':');
+            try {
+                since = Long.parseLong(lastEventId.substring(colon + 1).trim());
+                epoch = colon > 0 ? lastEventId.substring(0, colon).trim() : null;
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring malformed Last-Event-ID: {}", lastEventId);
+            }
+        }
+        logger.info("Opening menu change stream" + (since != null ? " from version " + since : ""));
+        try {
+            return ResponseEntity.ok(menuService.subscribeToMenuChanges(since, epoch));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            logger.warn("Rejected menu change stream: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
     }
 
     @GetMapping("/categories")
-    public ResponseEntity<List<CategoryDTO>> getAllCategories() {
+    public ResponseEntity<byte[]> getAllCategories(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         logger.info("Fetching all menu categories");
         try {
-            List<CategoryDTO> categories = menuService.getAllCategories();
-            return ResponseEntity.ok(categories);
+            return encodedResponse(menuJsonCache.getCategories(), acceptEncoding);
         } catch (Exception e) {
             logger.error("Failed to fetch categories", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Collections.emptyList());
+            return jsonStatus(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
     @GetMapping
-    public ResponseEntity<List<MenuItemDTO>> getMenuItems(@RequestParam(required = false) String category) {
-        logger.info("Fetching menu items" + (category != null ? " for category: " + category : ""));
+    public ResponseEntity<byte[]> getMenuItems(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        logger.info("Fetching menu items" + (category != null ? " for category: " + category : "")
+                + (type != null ? " of type: " + type : ""));
         try {
-            List<MenuItemDTO> menuItems = category != null ? 
-                menuService.getMenuItemsByCategory(category) : 
-                menuService.getAllMenuItems();
-            if (category != null && menuItems.isEmpty()) {
-                logger.info("No items found for category: {}", category);
-                return ResponseEntity.ok(Collections.emptyList());
-            }
-            return ResponseEntity.ok(menuItems);
+            if (category != null && category.trim().isEmpty()) {
+                throw new IllegalArgumentException("Category cannot be null or empty");
+            }
+            if (type != null && !type.equals("Veg") && !type.equals("Non-Veg")) {
+                throw new IllegalArgumentException("Type must be 'Veg' or 'Non-Veg'");
+            }
+            if ((minPrice != null && minPrice < 0) || (maxPrice != null && maxPrice < 0)) {
+                throw new IllegalArgumentException("Price bounds cannot be negative");
+            }
+            if (minPrice != null || maxPrice != null) {
+                return encodedResponse(
+                        menuJsonCache.getItemsInPriceRange(category, type, minPrice, maxPrice), acceptEncoding);
+            }
+            return encodedResponse(menuJsonCache.getItems(category, type), acceptEncoding);
         } catch (IllegalArgumentException e) {
             logger.warn("Invalid request: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Collections.emptyList());
+            return jsonStatus(HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             logger.error("Failed to fetch menu items", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Collections.emptyList());
+            return jsonStatus(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Paged listing is selected by the presence of limit; the unpaged view above stays as it was
+    @GetMapping(params = "limit")
+    public ResponseEntity<MenuPageDTO> getMenuItemPage(
+            @RequestParam int limit,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) List<String> fields) {
+        logger.info("Fetching menu page after: {}, limit: {}", after, limit);
+        try {
+            if (category != null && category.trim().isEmpty()) {
+                throw new IllegalArgumentException("Category cannot be null or empty");
+            }
+            if (type != null && !type.equals("Veg") && !type.equals("Non-Veg")) {
+                throw new IllegalArgumentException("Type must be 'Veg' or 'Non-Veg'");
+            }
+            return ResponseEntity.ok(menuService.getMenuItemPage(category, type, after, limit, fields));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid page request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Failed to fetch menu page", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<MenuItemDTO>> searchMenuItems(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "20") int limit) {
+        logger.info("Searching menu items for: {}", q);
+        try {
+            if (q.trim().isEmpty()) {
+                throw new IllegalArgumentException("Search query cannot be empty");
+            }
+            if (q.length() > 100) {
+                throw new IllegalArgumentException("Search query must not exceed 100 characters");
+            }
+            if (type != null && !type.equals("Veg") && !type.equals("Non-Veg")) {
+                throw new IllegalArgumentException("Type must be 'Veg' or 'Non-Veg'");
+            }
+            if (limit < 1 || limit > 100) {
+                throw new IllegalArgumentException("Limit must be between 1 and 100");
+            }
+            return ResponseEntity.ok(menuSearchIndex.search(q, type, limit));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid search request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(List.of());
+        } catch (Exception e) {
+            logger.error("Failed to search menu items", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(List.of());
         }
     }
-}
\ No newline at end of file
+
+    // Spring answers If-None-Match with 304 (and skips the body) when the ETag matches
+    private ResponseEntity<byte[]> encodedResponse(MenuJsonCache.EncodedJson encoded, String acceptEncoding) {
+        boolean gzip = encoded.hasGzip() && acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(menuCacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .eTag(gzip ? encoded.getEtag() + "-gz" : encoded.getEtag());
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(encoded.getGzipped());
+        }
+        return builder.body(encoded.getJson());
+    }
+
+    private ResponseEntity<byte[]> jsonStatus(HttpStatus status) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(EMPTY_LIST);
+    }
+}
@@ -3,17 +3,23 @@ package com.flavorfleet.controller;
 import com.flavorfleet.config.JwtUtil;
 import com.flavorfleet.dto.CartItemDTO;
 import com.flavorfleet.dto.OrderDTO;
+import com.flavorfleet.dto.OrderPageDTO;
 import com.flavorfleet.entity.Order;
+import com.flavorfleet.entity.User;
+import com.flavorfleet.service.OrderIdempotencyService;
 import com.flavorfleet.service.OrderService;
 import com.flavorfleet.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,11 +32,14 @@ public class OrderController {
     private final OrderService orderService;
     private final UserService userService;
     private final JwtUtil jwtUtil;
+    private final OrderIdempotencyService idempotencyService;
 
-    public OrderController(OrderService orderService, UserService userService, JwtUtil jwtUtil) {
+    public OrderController(OrderService orderService, UserService userService, JwtUtil jwtUtil,
+                           OrderIdempotencyService idempotencyService) {
         this.orderService = orderService;
         this.userService = userService;
         this.jwtUtil = jwtUtil;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping
@@ -41,41 +50,105 @@ public class OrderController {
         List<Order> orders = orderService.getOrders(email);
         List<OrderDTO> orderDTOs = orders.stream()
                 .map(this::mapToOrderDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toCollection(ArrayList::new));
+        orderDTOs.addAll(orderService.getArchivedOrders(email));
 
         logger.info("Orders fetched successfully for email: {}", email);
         return ResponseEntity.ok(orderDTOs);
     }
 
+    // Paged history is selected by the presence of limit; without it the full list above is returned
+    @GetMapping(params = "limit")
+    public ResponseEntity<?> getOrderPage(@RequestParam int limit,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) String status,
+                                          @RequestParam(required = false) String city,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                          HttpServletRequest request) {
+        String token = extractToken(request);
+        String email = jwtUtil.getEmailFromToken(token);
+        try {
+            User user = userService.findByEmail(email);
+            if (user == null) {
+                logger.warn("No user found for email: {}", email);
+                return ResponseEntity.ok(new OrderPageDTO(List.of(), null, false));
+            }
+            OrderPageDTO page = orderService.getOrderPage(user.getId(), status, city, from, to, cursor, limit);
+            logger.info("Order page fetched successfully for email: {}", email);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid order page request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new AdminController.ErrorResponse(e.getMessage()));
+        }
+    }
+
     @PostMapping
-    public ResponseEntity<?> createOrder(@Valid @RequestBody OrderDTO orderDTO, HttpServletRequest request) {
+    public ResponseEntity<?> createOrder(@Valid @RequestBody OrderDTO orderDTO,
+                                         @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                         HttpServletRequest request) {
+        String email = null;
+        OrderIdempotencyService.Claim claim = null;
         try {
             String token = extractToken(request);
-            String email = jwtUtil.getEmailFromToken(token);
+            email = jwtUtil.getEmailFromToken(token);
 
-            Order savedOrder = orderService.saveOrder(orderDTO, email);
+            if (idempotencyKey != null) {
+                claim = idempotencyService.claim(email, idempotencyKey, orderDTO);
+                switch (claim.getOutcome()) {
+                    case REPLAY -> {
+                        logger.info("Replaying order {} for idempotency key {} ({})",
+                                claim.getResponse().getId(), idempotencyKey, email);
+                        return ResponseEntity.ok().header("Idempotent-Replayed", "true").body(claim.getResponse());
+                    }
+                    case IN_PROGRESS -> {
+                        return ResponseEntity.status(HttpStatus.CONFLICT)
+                                .body(new AdminController.ErrorResponse("An order with this Idempotency-Key is still being processed"));
+                    }
+                    case MISMATCH -> {
+                        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                                .body(new AdminController.ErrorResponse("Idempotency-Key was already used with a different order"));
+                    }
+                    default -> { }
+                }
+            }
+
+            Order savedOrder = orderService.saveOrder(orderDTO, email, claim);
 
             OrderDTO savedOrderDTO = mapToOrderDTO(savedOrder);
 
             logger.info("Order created successfully with ID: {} for email: {}", savedOrder.getId(), email);
             return ResponseEntity.ok(savedOrderDTO);
         } catch (IllegalArgumentException e) {
+            releaseClaim(email, claim);
             logger.warn("Order creation failed due to validation: {}", e.getMessage());
             return ResponseEntity.badRequest().body(new AdminController.ErrorResponse(e.getMessage()));
         } catch (Exception e) {
+            releaseClaim(email, claim);
             logger.error("Order creation failed", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new AdminController.ErrorResponse("Failed to create order: " + e.getMessage()));
         }
     }
 
+    private void releaseClaim(String email, OrderIdempotencyService.Claim claim) {
+        if (claim == null || claim.getOutcome() != OrderIdempotencyService.Outcome.CLAIMED) {
+            return;
+        }
+        try {
+            idempotencyService.release(email, claim);
+        } catch (Exception e) {
+            logger.error("Failed to release idempotency key claim for {}: {}", email, e.getMessage());
+        }
+    }
+
     private OrderDTO mapToOrderDTO(Order order) {
         return new OrderDTO(
                 order.getId(),
                 order.getUser().getEmail(),
                 order.getUser().getName(),
                 order.getTotalPrice(),
-                order.getStatus(),
+                order.getStatus().name(),
                 order.getCreatedAt(),
                 order.getItems().stream()
                         .map(item -> new CartItemDTO(
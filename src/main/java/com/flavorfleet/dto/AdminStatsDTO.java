@@ -29,7 +29,7 @@ public class AdminStatsDTO {
     private LocalDateTime timeStart;  // Start date for filter
     private LocalDateTime timeEnd;    // End date for filter
 
-    // Trends (mocked for now - you can compute real trends later)
+    // Revenue change versus the preceding window of the same length, in percent
     private double revenueTrendPercent;
 
     // Constructor
@@ -0,0 +1,37 @@
+package com.flavorfleet.dto;
+
+import java.time.Instant;
+
+public class MenuChangeDTO {
+
+    private long version;
+    private String type;
+    private Instant changedAt;
+    private MenuItemDTO item;
+    private Long itemId;
+    private CategoryDTO category;
+
+    public MenuChangeDTO() {}
+
+    public MenuChangeDTO(long version, String type, Instant changedAt, MenuItemDTO item, Long itemId, CategoryDTO category) {
+        this.version = version;
+        this.type = type;
+        this.changedAt = changedAt;
+        this.item = item;
+        this.itemId = itemId;
+        this.category = category;
+    }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public Instant getChangedAt() { return changedAt; }
+    public void setChangedAt(Instant changedAt) { this.changedAt = changedAt; }
+    public MenuItemDTO getItem() { return item; }
+    public void setItem(MenuItemDTO item) { this.item = item; }
+    public Long getItemId() { return itemId; }
+    public void setItemId(Long itemId) { this.itemId = itemId; }
+    public CategoryDTO getCategory() { return category; }
+    public void setCategory(CategoryDTO category) { this.category = category; }
+}
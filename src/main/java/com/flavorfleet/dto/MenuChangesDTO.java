@@ -0,0 +1,29 @@
+package com.flavorfleet.dto;
+
+import java.util.List;
+
+public class MenuChangesDTO {
+
+    private String epoch;
+    private long currentVersion;
+    private boolean resyncRequired;
+    private List<MenuChangeDTO> changes;
+
+    public MenuChangesDTO() {}
+
+    public MenuChangesDTO(String epoch, long currentVersion, boolean resyncRequired, List<MenuChangeDTO> changes) {
+        this.epoch = epoch;
+        this.currentVersion = currentVersion;
+        this.resyncRequired = resyncRequired;
+        this.changes = changes;
+    }
+
+    public String getEpoch() { return epoch; }
+    public void setEpoch(String epoch) { this.epoch = epoch; }
+    public long getCurrentVersion() { return currentVersion; }
+    public void setCurrentVersion(long currentVersion) { this.currentVersion = currentVersion; }
+    public boolean isResyncRequired() { return resyncRequired; }
+    public void setResyncRequired(boolean resyncRequired) { this.resyncRequired = resyncRequired; }
+    public List<MenuChangeDTO> getChanges() { return changes; }
+    public void setChanges(List<MenuChangeDTO> changes) { this.changes = changes; }
+}
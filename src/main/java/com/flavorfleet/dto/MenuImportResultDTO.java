@@ -0,0 +1,48 @@
+package com.flavorfleet.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MenuImportResultDTO {
+
+    private int received;
+    private int inserted;
+    private int updated;
+    private List<RowError> errors = new ArrayList<>();
+
+    public MenuImportResultDTO() {}
+
+    public MenuImportResultDTO(int received) {
+        this.received = received;
+    }
+
+    public int getReceived() { return received; }
+    public void setReceived(int received) { this.received = received; }
+    public int getInserted() { return inserted; }
+    public void setInserted(int inserted) { this.inserted = inserted; }
+    public int getUpdated() { return updated; }
+    public void setUpdated(int updated) { this.updated = updated; }
+    public List<RowError> getErrors() { return errors; }
+    public void setErrors(List<RowError> errors) { this.errors = errors; }
+
+    public void addError(int row, String message) {
+        errors.add(new RowError(row, message));
+    }
+
+    public static class RowError {
+        private int row;
+        private String message;
+
+        public RowError() {}
+
+        public RowError(int row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public int getRow() { return row; }
+        public void setRow(int row) { this.row = row; }
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+}
@@ -0,0 +1,26 @@
+package com.flavorfleet.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class MenuPageDTO {
+
+    private List<Map<String, Object>> items;
+    private Long nextCursor;
+    private boolean hasMore;
+
+    public MenuPageDTO() {}
+
+    public MenuPageDTO(List<Map<String, Object>> items, Long nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<Map<String, Object>> getItems() { return items; }
+    public void setItems(List<Map<String, Object>> items) { this.items = items; }
+    public Long getNextCursor() { return nextCursor; }
+    public void setNextCursor(Long nextCursor) { this.nextCursor = nextCursor; }
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
@@ -0,0 +1,33 @@
+package com.flavorfleet.dto;
+
+import java.time.Instant;
+
+public class MenuVersionDTO {
+
+    private String epoch;
+    private long version;
+    private Instant builtAt;
+    private int itemCount;
+    private int categoryCount;
+
+    public MenuVersionDTO() {}
+
+    public MenuVersionDTO(String epoch, long version, Instant builtAt, int itemCount, int categoryCount) {
+        this.epoch = epoch;
+        this.version = version;
+        this.builtAt = builtAt;
+        this.itemCount = itemCount;
+        this.categoryCount = categoryCount;
+    }
+
+    public String getEpoch() { return epoch; }
+    public void setEpoch(String epoch) { this.epoch = epoch; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    public Instant getBuiltAt() { return builtAt; }
+    public void setBuiltAt(Instant builtAt) { this.builtAt = builtAt; }
+    public int getItemCount() { return itemCount; }
+    public void setItemCount(int itemCount) { this.itemCount = itemCount; }
+    public int getCategoryCount() { return categoryCount; }
+    public void setCategoryCount(int categoryCount) { this.categoryCount = categoryCount; }
+}
@@ -0,0 +1,56 @@
+package com.flavorfleet.dto;
+
+import com.flavorfleet.entity.OrderStatus;
+
+import java.time.LocalDateTime;
+
+public class OrderExportRow {
+
+    private Long id;
+    private LocalDateTime createdAt;
+    private String status;
+    private Double totalPrice;
+    private String userEmail;
+    private String userName;
+    private String addressLine1;
+    private String addressLine2;
+    private String city;
+    private String pincode;
+
+    public OrderExportRow() {}
+
+    public OrderExportRow(Long id, LocalDateTime createdAt, OrderStatus status, Double totalPrice, String userEmail,
+                          String userName, String addressLine1, String addressLine2, String city, String pincode) {
+        this.id = id;
+        this.createdAt = createdAt;
+        this.status = status != null ? status.name() : null;
+        this.totalPrice = totalPrice;
+        this.userEmail = userEmail;
+        this.userName = userName;
+        this.addressLine1 = addressLine1;
+        this.addressLine2 = addressLine2;
+        this.city = city;
+        this.pincode = pincode;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public Double getTotalPrice() { return totalPrice; }
+    public void setTotalPrice(Double totalPrice) { this.totalPrice = totalPrice; }
+    public String getUserEmail() { return userEmail; }
+    public void setUserEmail(String userEmail) { this.userEmail = userEmail; }
+    public String getUserName() { return userName; }
+    public void setUserName(String userName) { this.userName = userName; }
+    public String getAddressLine1() { return addressLine1; }
+    public void setAddressLine1(String addressLine1) { this.addressLine1 = addressLine1; }
+    public String getAddressLine2() { return addressLine2; }
+    public void setAddressLine2(String addressLine2) { this.addressLine2 = addressLine2; }
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+    public String getPincode() { return pincode; }
+    public void setPincode(String pincode) { this.pincode = pincode; }
+}
@@ -0,0 +1,25 @@
+package com.flavorfleet.dto;
+
+import java.util.List;
+
+public class OrderPageDTO {
+
+    private List<OrderDTO> orders;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public OrderPageDTO() {}
+
+    public OrderPageDTO(List<OrderDTO> orders, String nextCursor, boolean hasMore) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<OrderDTO> getOrders() { return orders; }
+    public void setOrders(List<OrderDTO> orders) { this.orders = orders; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
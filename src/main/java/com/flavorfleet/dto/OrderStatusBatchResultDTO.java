@@ -0,0 +1,51 @@
+package com.flavorfleet.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrderStatusBatchResultDTO {
+
+    private String status;
+    private List<Long> updated = new ArrayList<>();
+    private List<Long> unchanged = new ArrayList<>();
+    private List<Long> notFound = new ArrayList<>();
+    private List<Rejection> rejected = new ArrayList<>();
+
+    public OrderStatusBatchResultDTO() {}
+
+    public OrderStatusBatchResultDTO(String status) {
+        this.status = status;
+    }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public List<Long> getUpdated() { return updated; }
+    public void setUpdated(List<Long> updated) { this.updated = updated; }
+    public List<Long> getUnchanged() { return unchanged; }
+    public void setUnchanged(List<Long> unchanged) { this.unchanged = unchanged; }
+    public List<Long> getNotFound() { return notFound; }
+    public void setNotFound(List<Long> notFound) { this.notFound = notFound; }
+    public List<Rejection> getRejected() { return rejected; }
+    public void setRejected(List<Rejection> rejected) { this.rejected = rejected; }
+
+    public void addRejection(Long orderId, String currentStatus) {
+        rejected.add(new Rejection(orderId, currentStatus));
+    }
+
+    public static class Rejection {
+        private Long orderId;
+        private String currentStatus;
+
+        public Rejection() {}
+
+        public Rejection(Long orderId, String currentStatus) {
+            this.orderId = orderId;
+            this.currentStatus = currentStatus;
+        }
+
+        public Long getOrderId() { return orderId; }
+        public void setOrderId(Long orderId) { this.orderId = orderId; }
+        public String getCurrentStatus() { return currentStatus; }
+        public void setCurrentStatus(String currentStatus) { this.currentStatus = currentStatus; }
+    }
+}
@@ -0,0 +1,37 @@
+package com.flavorfleet.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public class OrderTrendDTO {
+
+    private String granularity;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private String city;
+    private long totalOrders;
+    private BigDecimal totalRevenue;
+    private List<OrderTrendPointDTO> points;
+    private Map<String, BigDecimal> revenueByCity;
+
+    public OrderTrendDTO() {}
+
+    public String getGranularity() { return granularity; }
+    public void setGranularity(String granularity) { this.granularity = granularity; }
+    public LocalDateTime getFrom() { return from; }
+    public void setFrom(LocalDateTime from) { this.from = from; }
+    public LocalDateTime getTo() { return to; }
+    public void setTo(LocalDateTime to) { this.to = to; }
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+    public long getTotalOrders() { return totalOrders; }
+    public void setTotalOrders(long totalOrders) { this.totalOrders = totalOrders; }
+    public BigDecimal getTotalRevenue() { return totalRevenue; }
+    public void setTotalRevenue(BigDecimal totalRevenue) { this.totalRevenue = totalRevenue; }
+    public List<OrderTrendPointDTO> getPoints() { return points; }
+    public void setPoints(List<OrderTrendPointDTO> points) { this.points = points; }
+    public Map<String, BigDecimal> getRevenueByCity() { return revenueByCity; }
+    public void setRevenueByCity(Map<String, BigDecimal> revenueByCity) { this.revenueByCity = revenueByCity; }
+}
@@ -0,0 +1,36 @@
+package com.flavorfleet.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class OrderTrendPointDTO {
+
+    private LocalDateTime bucketStart;
+    private long orderCount;
+    private BigDecimal revenue;
+    private BigDecimal avgOrderValue;
+    private Map<String, Long> statusCounts;
+
+    public OrderTrendPointDTO() {}
+
+    public OrderTrendPointDTO(LocalDateTime bucketStart, long orderCount, BigDecimal revenue,
+                              BigDecimal avgOrderValue, Map<String, Long> statusCounts) {
+        this.bucketStart = bucketStart;
+        this.orderCount = orderCount;
+        this.revenue = revenue;
+        this.avgOrderValue = avgOrderValue;
+        this.statusCounts = statusCounts;
+    }
+
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+    public long getOrderCount() { return orderCount; }
+    public void setOrderCount(long orderCount) { this.orderCount = orderCount; }
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+    public BigDecimal getAvgOrderValue() { return avgOrderValue; }
+    public void setAvgOrderValue(BigDecimal avgOrderValue) { this.avgOrderValue = avgOrderValue; }
+    public Map<String, Long> getStatusCounts() { return statusCounts; }
+    public void setStatusCounts(Map<String, Long> statusCounts) { this.statusCounts = statusCounts; }
+}
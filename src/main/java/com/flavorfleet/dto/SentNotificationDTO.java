@@ -14,6 +14,11 @@ public class SentNotificationDTO {
     private LocalDateTime sentAt;
     private LocalDateTime scheduleDate;
     private String status;
+    private long totalRecipients;
+    private long processedRecipients;
+    private long emailsSent;
+    private long emailsFailed;
+    private LocalDateTime completedAt;
 
     // Constructors
     public SentNotificationDTO() {}
@@ -49,4 +54,14 @@ public class SentNotificationDTO {
     public void setScheduleDate(LocalDateTime scheduleDate) { this.scheduleDate = scheduleDate; }
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
+    public long getTotalRecipients() { return totalRecipients; }
+    public void setTotalRecipients(long totalRecipients) { this.totalRecipients = totalRecipients; }
+    public long getProcessedRecipients() { return processedRecipients; }
+    public void setProcessedRecipients(long processedRecipients) { this.processedRecipients = processedRecipients; }
+    public long getEmailsSent() { return emailsSent; }
+    public void setEmailsSent(long emailsSent) { this.emailsSent = emailsSent; }
+    public long getEmailsFailed() { return emailsFailed; }
+    public void setEmailsFailed(long emailsFailed) { this.emailsFailed = emailsFailed; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
 }
\ No newline at end of file
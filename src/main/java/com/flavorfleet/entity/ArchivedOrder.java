@@ -0,0 +1,80 @@
+package com.flavorfleet.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A delivered or cancelled order moved out of {@code orders} by {@code OrderArchiveService}.
+ * Rows are written with INSERT ... SELECT and never changed afterwards; ids are the original
+ * order ids.
+ */
+@Entity
+@Immutable
+@Table(name = "orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_orders_archive_user_created_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_orders_archive_status_code_created_id", columnList = "status_code, created_at, id")
+})
+public class ArchivedOrder {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "total_price", nullable = false)
+    private Double totalPrice;
+
+    @Convert(converter = OrderStatusConverter.class)
+    @Column(name = "status_code", nullable = false, columnDefinition = "TINYINT")
+    private OrderStatus status;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @OneToMany
+    @JoinColumn(name = "order_id")
+    @BatchSize(size = 50)
+    private List<ArchivedOrderLine> items = new ArrayList<>();
+
+    @Column(name = "address_line1", nullable = false)
+    private String addressLine1;
+
+    @Column(name = "address_line2")
+    private String addressLine2;
+
+    @Column(nullable = false)
+    private String city;
+
+    @Column(nullable = false)
+    private String pincode;
+
+    public ArchivedOrder() {
+    }
+
+    public Long getId() { return id; }
+    public User getUser() { return user; }
+    public Double getTotalPrice() { return totalPrice; }
+    public OrderStatus getStatus() { return status; }
+    public long getVersion() { return version; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public List<ArchivedOrderLine> getItems() { return items; }
+    public String getAddressLine1() { return addressLine1; }
+    public String getAddressLine2() { return addressLine2; }
+    public String getCity() { return city; }
+    public String getPincode() { return pincode; }
+}
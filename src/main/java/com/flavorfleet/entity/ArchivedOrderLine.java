@@ -0,0 +1,47 @@
+package com.flavorfleet.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * A line of an {@link ArchivedOrder}, moved out of {@code order_lines} together with its order.
+ */
+@Entity
+@Immutable
+@Table(name = "order_lines_archive", indexes = {
+        @Index(name = "idx_order_lines_archive_order", columnList = "order_id")
+})
+public class ArchivedOrderLine {
+
+    @Id
+    private Long id;
+
+    @Column(name = "order_id", insertable = false, updatable = false)
+    private Long orderId;
+
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "price")
+    private Double price;
+
+    @Column(name = "quantity")
+    private Integer quantity;
+
+    @Column(name = "image")
+    private String image;
+
+    public ArchivedOrderLine() {
+    }
+
+    public Long getId() { return id; }
+    public Long getOrderId() { return orderId; }
+    public Long getItemId() { return itemId; }
+    public String getName() { return name; }
+    public Double getPrice() { return price; }
+    public Integer getQuantity() { return quantity; }
+    public String getImage() { return image; }
+}
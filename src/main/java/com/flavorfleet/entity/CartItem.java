@@ -1,17 +1,19 @@
 package com.flavorfleet.entity;
 
-import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items", indexes = {
+        @Index(name = "idx_cart_items_user_item", columnList = "user_id, item_id")
+})
 public class CartItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_item_seq")
+    @SequenceGenerator(name = "cart_item_seq", sequenceName = "cart_item_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "item_id")
@@ -40,22 +42,16 @@ public class CartItem {
     @JsonIgnore
     private User user;
 
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "order_id")
-    @JsonBackReference
-    private Order order;
-
     public CartItem() {
     }
 
-    public CartItem(Long itemId, String name, Double price, Integer quantity, String image, User user, Order order) {
+    public CartItem(Long itemId, String name, Double price, Integer quantity, String image, User user) {
         this.itemId = itemId;
         this.name = name;
         this.price = price;
         this.quantity = quantity;
         this.image = image;
         this.user = user;
-        this.order = order;
     }
 
     // Getters and setters
@@ -73,6 +69,4 @@ public class CartItem {
     public void setImage(String image) { this.image = image; }
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
-    public Order getOrder() { return order; }
-    public void setOrder(Order order) { this.order = order; }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.flavorfleet.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Single-row counter bumped by every menu mutation, so each instance can tell when the menu was
+ * changed through another one. The row is only ever updated in place by its repository.
+ */
+@Entity
+@Table(name = "menu_revision")
+public class MenuRevision {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private long revision;
+
+    public MenuRevision() {}
+
+    public Integer getId() { return id; }
+    public long getRevision() { return revision; }
+}
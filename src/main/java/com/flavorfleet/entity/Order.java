@@ -1,16 +1,25 @@
 package com.flavorfleet.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_status_total", columnList = "created_at, status_code, total_price"),
+        // Keyset pagination: newest first on (created_at, id), optionally within a user, status or city
+        @Index(name = "idx_orders_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_orders_user_created_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_orders_status_created_id", columnList = "status_code, created_at, id"),
+        @Index(name = "idx_orders_city_created_id", columnList = "city, created_at, id")
+})
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "order_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -20,15 +29,28 @@ public class Order {
     @Column(name = "total_price", nullable = false)
     private Double totalPrice;
 
-    @Column(nullable = false)
-    private String status = "PENDING";  // Default value
+    // Nullable only so the column can be added to existing tables; OrderStatusMigration backfills it
+    @Convert(converter = OrderStatusConverter.class)
+    @Column(name = "status_code", columnDefinition = "TINYINT")
+    private OrderStatus status = OrderStatus.PENDING;
+
+    // Legacy text status, still inserted by the previous release during a rolling deploy; read only
+    // as a fallback while status_code is NULL. Dropped once no running version writes it.
+    @Column(name = "status", insertable = false, updatable = false)
+    private String legacyStatus;
+
+    // Optimistic lock; status transitions also bump it in their conditional UPDATE
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long version;
 
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-    @JoinColumn(name = "order_id")
-    private List<CartItem> items = new ArrayList<>();
+    // Items of up to 50 orders in the persistence context are loaded together with one IN query
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
+    private List<OrderLine> items = new ArrayList<>();
 
     @Column(name = "address_line1", nullable = false)
     private String addressLine1;
@@ -53,7 +75,7 @@ public class Order {
             this.createdAt = LocalDateTime.now();
         }
         if (this.status == null) {
-            this.status = "PENDING";
+            this.status = OrderStatus.PENDING;
         }
     }
 
@@ -82,12 +104,16 @@ public class Order {
         this.totalPrice = totalPrice;
     }
 
-    public String getStatus() {
-        return status;
+    public OrderStatus getStatus() {
+        return status != null ? status : OrderStatus.fromLegacy(legacyStatus);
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status != null ? status : OrderStatus.PENDING;
     }
 
-    public void setStatus(String status) {
-        this.status = status != null ? status.toUpperCase() : "PENDING";
+    public long getVersion() {
+        return version;
     }
 
     public LocalDateTime getCreatedAt() {
@@ -98,11 +124,11 @@ public class Order {
         this.createdAt = createdAt;
     }
 
-    public List<CartItem> getItems() {
+    public List<OrderLine> getItems() {
         return items != null ? items : new ArrayList<>();
     }
 
-    public void setItems(List<CartItem> items) {
+    public void setItems(List<OrderLine> items) {
         this.items = items != null ? items : new ArrayList<>();
     }
 
@@ -139,7 +165,7 @@ public class Order {
     }
 
     // Helper method to add items (maintains bidirectional relationship)
-    public void addItem(CartItem item) {
+    public void addItem(OrderLine item) {
         if (item != null) {
             if (this.items == null) {
                 this.items = new ArrayList<>();
@@ -0,0 +1,64 @@
+package com.flavorfleet.entity;
+
+import com.fasterxml.jackson.annotation.JsonBackReference;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * One line of a placed order, written at checkout from the priced cart and never changed.
+ * Live carts stay in {@link CartItem}.
+ */
+@Entity
+@Immutable
+@Table(name = "order_lines", indexes = {
+        @Index(name = "idx_order_lines_order", columnList = "order_id")
+})
+public class OrderLine {
+
+    // Shares cart_item_seq so lines migrated from cart_items keep their ids without collisions
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_line_seq")
+    @SequenceGenerator(name = "order_line_seq", sequenceName = "cart_item_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
+    @JsonBackReference
+    private Order order;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    // Unit price charged at checkout
+    @Column(name = "price", nullable = false)
+    private Double price;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Column(name = "image")
+    private String image;
+
+    public OrderLine() {
+    }
+
+    public OrderLine(Long itemId, String name, Double price, Integer quantity, String image) {
+        this.itemId = itemId;
+        this.name = name;
+        this.price = price;
+        this.quantity = quantity;
+        this.image = image;
+    }
+
+    public Long getId() { return id; }
+    public Order getOrder() { return order; }
+    public void setOrder(Order order) { this.order = order; }
+    public Long getItemId() { return itemId; }
+    public String getName() { return name; }
+    public Double getPrice() { return price; }
+    public Integer getQuantity() { return quantity; }
+    public String getImage() { return image; }
+}
@@ -0,0 +1,61 @@
+package com.flavorfleet.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated order figures for one time bucket ("HOUR" or "DAY"), city and status.
+ * Rows are rewritten by the rollup job from the orders table; they are never edited directly.
+ */
+@Entity
+@Table(name = "order_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_order_rollups_bucket",
+                columnNames = {"granularity", "bucket_start", "city", "status"}),
+        indexes = @Index(name = "idx_order_rollups_range", columnList = "granularity, bucket_start"))
+public class OrderRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 8)
+    private String granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private String city;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(nullable = false)
+    private Double revenue;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public OrderRollup() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getGranularity() { return granularity; }
+    public void setGranularity(String granularity) { this.granularity = granularity; }
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public long getOrderCount() { return orderCount; }
+    public void setOrderCount(long orderCount) { this.orderCount = orderCount; }
+    public Double getRevenue() { return revenue; }
+    public void setRevenue(Double revenue) { this.revenue = revenue; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
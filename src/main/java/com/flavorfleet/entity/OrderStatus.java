@@ -0,0 +1,106 @@
+package com.flavorfleet.entity;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Order lifecycle. Stored as a small integer ({@link #getCode()}) in {@code orders.status_code};
+ * the codes are part of the schema and must never be renumbered.
+ * <pre>
+ * PENDING -> ACCEPTED -> PREPARING -> OUT_FOR_DELIVERY -> DELIVERED
+ *    \___________\___________\______________________________> CANCELLED
+ * </pre>
+ */
+public enum OrderStatus {
+    PENDING(0),
+    ACCEPTED(1),
+    PREPARING(2),
+    OUT_FOR_DELIVERY(3),
+    DELIVERED(4),
+    CANCELLED(5);
+
+    private static final OrderStatus[] BY_CODE = new OrderStatus[6];
+
+    static {
+        for (OrderStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
+    }
+
+    private final int code;
+
+    OrderStatus(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public Set<OrderStatus> nextStatuses() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(ACCEPTED, CANCELLED);
+            case ACCEPTED -> EnumSet.of(PREPARING, CANCELLED);
+            case PREPARING -> EnumSet.of(OUT_FOR_DELIVERY, CANCELLED);
+            case OUT_FOR_DELIVERY -> EnumSet.of(DELIVERED);
+            case DELIVERED, CANCELLED -> EnumSet.noneOf(OrderStatus.class);
+        };
+    }
+
+    public boolean canTransitionTo(OrderStatus next) {
+        return nextStatuses().contains(next);
+    }
+
+    // Statuses an order can be in to move to this one, in lifecycle order
+    public Set<OrderStatus> previousStatuses() {
+        Set<OrderStatus> previous = EnumSet.noneOf(OrderStatus.class);
+        for (OrderStatus status : values()) {
+            if (status.canTransitionTo(this)) {
+                previous.add(status);
+            }
+        }
+        return previous;
+    }
+
+    public boolean isTerminal() {
+        return this == DELIVERED || this == CANCELLED;
+    }
+
+    public static OrderStatus fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
+            throw new IllegalArgumentException("Unknown order status code: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * Parses a status name from a request, ignoring case and accepting spaces or hyphens for
+     * underscores ("Out for delivery"), plus the legacy spellings CONFIRMED and CANCELED.
+     */
+    public static OrderStatus parse(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Order status is required");
+        }
+        String name = value.trim().toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_');
+        switch (name) {
+            case "CONFIRMED": return ACCEPTED;
+            case "CANCELED": return CANCELLED;
+            default: break;
+        }
+        try {
+            return valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown order status: " + value);
+        }
+    }
+
+    // Legacy free-text orders.status value; like the backfill, anything unrecognised is PENDING
+    public static OrderStatus fromLegacy(String value) {
+        try {
+            return parse(value);
+        } catch (IllegalArgumentException e) {
+            return PENDING;
+        }
+    }
+}
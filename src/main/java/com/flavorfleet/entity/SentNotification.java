@@ -34,6 +34,33 @@ public class SentNotification {
 
     private String status = "PENDING";
 
+    // Fan-out progress; broadcasts and large sends are delivered in the background (QUEUED -> SENDING -> SENT)
+    @Column(name = "total_recipients", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long totalRecipients;
+
+    @Column(name = "processed_recipients", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long processedRecipients;
+
+    @Column(name = "emails_sent", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long emailsSent;
+
+    @Column(name = "emails_failed", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long emailsFailed;
+
+    // Highest user id already written; a resumed fan-out continues after it
+    @Column(name = "last_user_id", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long lastUserId;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    // Token of the fan-out run holding the lease; progress is only recorded under it
+    @Column(name = "lease_owner", length = 36)
+    private String leaseOwner;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
     public SentNotification() {}
 
     public Long getId() { return id; }
@@ -54,4 +81,20 @@ public class SentNotification {
     public void setScheduleDate(LocalDateTime scheduleDate) { this.scheduleDate = scheduleDate; }
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
+    public long getTotalRecipients() { return totalRecipients; }
+    public void setTotalRecipients(long totalRecipients) { this.totalRecipients = totalRecipients; }
+    public long getProcessedRecipients() { return processedRecipients; }
+    public void setProcessedRecipients(long processedRecipients) { this.processedRecipients = processedRecipients; }
+    public long getEmailsSent() { return emailsSent; }
+    public void setEmailsSent(long emailsSent) { this.emailsSent = emailsSent; }
+    public long getEmailsFailed() { return emailsFailed; }
+    public void setEmailsFailed(long emailsFailed) { this.emailsFailed = emailsFailed; }
+    public long getLastUserId() { return lastUserId; }
+    public void setLastUserId(long lastUserId) { this.lastUserId = lastUserId; }
+    public LocalDateTime getLockedUntil() { return lockedUntil; }
+    public void setLockedUntil(LocalDateTime lockedUntil) { this.lockedUntil = lockedUntil; }
+    public String getLeaseOwner() { return leaseOwner; }
+    public void setLeaseOwner(String leaseOwner) { this.leaseOwner = leaseOwner; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.flavorfleet.repository;
+
+import com.flavorfleet.dto.OrderExportRow;
+import com.flavorfleet.entity.ArchivedOrder;
+import com.flavorfleet.entity.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Read side of the order archive; rows are moved in and deleted by OrderArchiveService with plain SQL
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    @EntityGraph(attributePaths = {"user", "user.restaurant"})
+    List<ArchivedOrder> findByUserId(Long userId);
+
+    @Override
+    @EntityGraph(attributePaths = {"user", "user.restaurant"})
+    List<ArchivedOrder> findAll();
+
+    // Same filters and keyset as OrderRepository.findPage
+    @Query("SELECT o FROM ArchivedOrder o JOIN FETCH o.user u LEFT JOIN FETCH u.restaurant " +
+           "WHERE (:userId IS NULL OR u.id = :userId) " +
+           "AND (:status IS NULL OR o.status = :status) " +
+           "AND (:city IS NULL OR o.city = :city) " +
+           "AND (:from IS NULL OR o.createdAt >= :from) " +
+           "AND (:to IS NULL OR o.createdAt < :to) " +
+           "AND (:cursorAt IS NULL OR o.createdAt < :cursorAt OR (o.createdAt = :cursorAt AND o.id < :cursorId)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<ArchivedOrder> findPage(@Param("userId") Long userId,
+                                 @Param("status") OrderStatus status,
+                                 @Param("city") String city,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to,
+                                 @Param("cursorAt") LocalDateTime cursorAt,
+                                 @Param("cursorId") Long cursorId,
+                                 Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new com.flavorfleet.dto.OrderExportRow(o.id, o.createdAt, o.status, o.totalPrice, " +
+           "u.email, u.name, o.addressLine1, o.addressLine2, o.city, o.pincode) " +
+           "FROM ArchivedOrder o JOIN o.user u " +
+           "WHERE (:status IS NULL OR o.status = :status) " +
+           "AND (:from IS NULL OR o.createdAt >= :from) " +
+           "AND (:to IS NULL OR o.createdAt < :to) " +
+           "ORDER BY o.createdAt, o.id")
+    Stream<OrderExportRow> streamForExport(@Param("status") OrderStatus status,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
+    @Query("SELECT MIN(o.createdAt) FROM ArchivedOrder o")
+    LocalDateTime findEarliestCreatedAt();
+
+    @Query("SELECT MAX(o.createdAt) FROM ArchivedOrder o")
+    LocalDateTime findLatestCreatedAt();
+
+    @Query("SELECT COUNT(o) AS orderCount, COALESCE(SUM(o.totalPrice), 0) AS revenue " +
+           "FROM ArchivedOrder o WHERE o.createdAt >= :start")
+    OrderRepository.OrderTotals sumOrdersSince(@Param("start") LocalDateTime start);
+
+    @Query("SELECT o.status AS status, COUNT(o) AS orderCount " +
+           "FROM ArchivedOrder o WHERE o.createdAt >= :start GROUP BY o.status")
+    List<OrderRepository.StatusCount> countByStatusSince(@Param("start") LocalDateTime start);
+}
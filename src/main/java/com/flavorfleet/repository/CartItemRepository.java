@@ -11,15 +11,17 @@
 	
 	public interface CartItemRepository extends JpaRepository<CartItem, Long> {
 	    List<CartItem> findByUser(User user);
-	    List<CartItem> findByUserAndOrderIsNull(User user);
 	
-	    @Query("SELECT c FROM CartItem c WHERE c.user = :user AND c.itemId = :itemId AND c.order IS NULL")
-	    CartItem findByUserAndItemIdAndOrderIsNull(User user, Long itemId);
+	    CartItem findByUserAndItemId(User user, Long itemId);
 	
 	    @Modifying
 	    @Query("DELETE FROM CartItem c WHERE c.user = :user AND c.id = :id")
 	    void deleteByUserAndId(User user, Long id);
 	
+	    @Modifying
+	    @Query("DELETE FROM CartItem c WHERE c.user = :user")
+	    int deleteCartOf(User user);
+	
 	    @Transactional
 	    void deleteByUserId(Long userId);
 	}
\ No newline at end of file
@@ -1,20 +1,36 @@
 package com.flavorfleet.repository;
 
+import com.flavorfleet.dto.MenuItemDTO;
 import com.flavorfleet.entity.MenuItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
-    List<MenuItem> findByCategoryName(String categoryName);
+    boolean existsByCategoryId(Long categoryId);
 
-    // ADDED: Flexible query for type + price
-    @Query("SELECT m FROM MenuItem m WHERE (:type IS NULL OR m.type = :type) " +
-           "AND (:minPrice IS NULL OR m.price > :minPrice) " +
-           "AND (:maxPrice IS NULL OR m.price < :maxPrice)")
-    List<MenuItem> findByTypeAndPrice(@Param("type") String type, 
-                                      @Param("minPrice") Double minPrice, 
-                                      @Param("maxPrice") Double maxPrice);
+    @Query("SELECT m.id FROM MenuItem m WHERE m.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Whole visible menu in one joined statement; items in soft-deleted categories are filtered in SQL
+    @Query("SELECT new com.flavorfleet.dto.MenuItemDTO(m.id, m.name, m.price, m.description, m.image, " +
+           "c.id, c.name, m.type) FROM MenuItem m JOIN m.category c " +
+           "WHERE c.deleted = false ORDER BY m.id")
+    List<MenuItemDTO> findAllVisible();
+
+    // Keyset page: rows after the given id, projected straight into DTOs without loading entities
+    @Query("SELECT new com.flavorfleet.dto.MenuItemDTO(m.id, m.name, m.price, m.description, m.image, " +
+           "c.id, c.name, m.type) FROM MenuItem m JOIN m.category c " +
+           "WHERE c.deleted = false AND m.id > :afterId " +
+           "AND (:category IS NULL OR c.name = :category) " +
+           "AND (:type IS NULL OR m.type = :type) " +
+           "ORDER BY m.id")
+    List<MenuItemDTO> findPageAfter(@Param("afterId") Long afterId,
+                                    @Param("category") String category,
+                                    @Param("type") String type,
+                                    Pageable pageable);
 }
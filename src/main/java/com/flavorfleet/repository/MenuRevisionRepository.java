@@ -0,0 +1,25 @@
+package com.flavorfleet.repository;
+
+import com.flavorfleet.entity.MenuRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface MenuRevisionRepository extends JpaRepository<MenuRevision, Integer> {
+
+    // Every instance runs this on startup; only the first creates the row
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO menu_revision (id, revision) VALUES (" + MenuRevision.ID + ", 0)",
+           nativeQuery = true)
+    void createIfMissing();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE MenuRevision r SET r.revision = r.revision + 1 WHERE r.id = " + MenuRevision.ID)
+    int increment();
+
+    @Query("SELECT r.revision FROM MenuRevision r WHERE r.id = " + MenuRevision.ID)
+    Long findRevision();
+}
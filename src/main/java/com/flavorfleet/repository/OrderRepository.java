@@ -1,20 +1,163 @@
 package com.flavorfleet.repository;
 
+import com.flavorfleet.dto.OrderExportRow;
 import com.flavorfleet.entity.Order;
+import com.flavorfleet.entity.OrderStatus;
 import com.flavorfleet.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+    // Legacy text orders.status -> status code, for rows inserted by a release that predates
+    // status_code (anything unrecognised is PENDING); OrderStatusMigration backfills with it too
+    String LEGACY_STATUS_CODE =
+            "CASE UPPER(REPLACE(TRIM(status), ' ', '_')) " +
+            "WHEN 'ACCEPTED' THEN 1 WHEN 'CONFIRMED' THEN 1 " +
+            "WHEN 'PREPARING' THEN 2 " +
+            "WHEN 'OUT_FOR_DELIVERY' THEN 3 " +
+            "WHEN 'DELIVERED' THEN 4 " +
+            "WHEN 'CANCELLED' THEN 5 WHEN 'CANCELED' THEN 5 " +
+            "ELSE 0 END";
+
+    // Order listings read each order's user; user.restaurant is fetched too because an inverse
+    // one-to-one cannot be proxied and would otherwise cost one select per user
+    @EntityGraph(attributePaths = {"user", "user.restaurant"})
     List<Order> findByUser(User user);
 
     // ← NEW: Required for cascade delete in AdminController
+    @EntityGraph(attributePaths = {"user", "user.restaurant"})
     List<Order> findByUserId(Long userId);
 
+    @Override
+    @EntityGraph(attributePaths = {"user", "user.restaurant"})
+    List<Order> findAll();
+
     // ← NEW: Optional but useful – delete all orders of a user in one query
     @Transactional
     void deleteByUserId(Long userId);
-}
\ No newline at end of file
+
+    // Keyset page, newest first; the cursor is the (createdAt, id) of the last row already returned
+    @Query("SELECT o FROM Order o JOIN FETCH o.user u LEFT JOIN FETCH u.restaurant " +
+           "WHERE (:userId IS NULL OR u.id = :userId) " +
+           "AND (:status IS NULL OR o.status = :status) " +
+           "AND (:city IS NULL OR o.city = :city) " +
+           "AND (:from IS NULL OR o.createdAt >= :from) " +
+           "AND (:to IS NULL OR o.createdAt < :to) " +
+           "AND (:cursorAt IS NULL OR o.createdAt < :cursorAt OR (o.createdAt = :cursorAt AND o.id < :cursorId)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPage(@Param("userId") Long userId,
+                         @Param("status") OrderStatus status,
+                         @Param("city") String city,
+                         @Param("from") LocalDateTime from,
+                         @Param("to") LocalDateTime to,
+                         @Param("cursorAt") LocalDateTime cursorAt,
+                         @Param("cursorId") Long cursorId,
+                         Pageable pageable);
+
+    // Forward-only stream of flat rows for exports. A fetch size of Integer.MIN_VALUE makes the MySQL
+    // driver stream rows instead of buffering the whole result, and rows are DTOs, not managed entities.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new com.flavorfleet.dto.OrderExportRow(o.id, o.createdAt, o.status, o.totalPrice, " +
+           "u.email, u.name, o.addressLine1, o.addressLine2, o.city, o.pincode) " +
+           "FROM Order o JOIN o.user u " +
+           "WHERE (:status IS NULL OR o.status = :status) " +
+           "AND (:from IS NULL OR o.createdAt >= :from) " +
+           "AND (:to IS NULL OR o.createdAt < :to) " +
+           "ORDER BY o.createdAt, o.id")
+    Stream<OrderExportRow> streamForExport(@Param("status") OrderStatus status,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
+    @Query("SELECT MIN(o.createdAt) FROM Order o")
+    LocalDateTime findEarliestCreatedAt();
+
+    // Dashboard aggregates; both are answered from the (created_at, status_code, total_price) index
+    @Query("SELECT COUNT(o) AS orderCount, COALESCE(SUM(o.totalPrice), 0) AS revenue " +
+           "FROM Order o WHERE o.createdAt >= :start")
+    OrderTotals sumOrdersSince(@Param("start") LocalDateTime start);
+
+    @Query("SELECT o.status AS status, COUNT(o) AS orderCount " +
+           "FROM Order o WHERE o.createdAt >= :start GROUP BY o.status")
+    List<StatusCount> countByStatusSince(@Param("start") LocalDateTime start);
+
+    // Per-day, per-status totals used to seed and reconcile the in-memory dashboard counters;
+    // archived orders still count
+    @Query(value = "SELECT DATE_FORMAT(created_at, '%Y-%m-%d') AS day, status_code AS statusCode, " +
+                   "COUNT(*) AS orderCount, COALESCE(SUM(total_price), 0) AS revenue FROM (" +
+                   "SELECT created_at, COALESCE(status_code, " + LEGACY_STATUS_CODE + ") AS status_code, " +
+                   "total_price FROM orders UNION ALL " +
+                   "SELECT created_at, status_code, total_price FROM orders_archive) o " +
+                   "GROUP BY DATE_FORMAT(created_at, '%Y-%m-%d'), status_code", nativeQuery = true)
+    List<DailyStatusTotals> sumByDayAndStatus();
+
+    /**
+     * Moves an order from {@code from} to {@code to} in one statement. Returns 0 when the order is
+     * no longer in {@code from}, i.e. a concurrent update won.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :to, o.version = o.version + 1 WHERE o.id = :id AND o.status = :from")
+    int transitionStatus(@Param("id") Long id, @Param("from") OrderStatus from, @Param("to") OrderStatus to);
+
+    // Just the columns a batch status change needs to validate and announce each order
+    @Query("SELECT o.id AS id, o.status AS status, o.user.id AS userId, o.createdAt AS createdAt, " +
+           "o.totalPrice AS totalPrice FROM Order o WHERE o.id IN :ids")
+    List<StatusSnapshot> findStatusSnapshots(@Param("ids") Collection<Long> ids);
+
+    // Fills status_code for any of these orders still waiting for OrderStatusMigration
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE orders SET status_code = " + LEGACY_STATUS_CODE + " " +
+                   "WHERE id IN :ids AND status_code IS NULL", nativeQuery = true)
+    int backfillStatusCodes(@Param("ids") Collection<Long> ids);
+
+    // Row locks in id order, so concurrent batches over overlapping orders cannot deadlock
+    @Query(value = "SELECT id FROM orders WHERE id IN :ids ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Set-based {@link #transitionStatus}: moves every order in {@code ids} that is still in
+     * {@code from} to {@code to}. Returns the number of orders moved.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :to, o.version = o.version + 1 WHERE o.id IN :ids AND o.status = :from")
+    int transitionStatuses(@Param("ids") Collection<Long> ids, @Param("from") OrderStatus from,
+                           @Param("to") OrderStatus to);
+
+    interface OrderTotals {
+        long getOrderCount();
+        Double getRevenue();
+    }
+
+    interface StatusSnapshot {
+        Long getId();
+        OrderStatus getStatus();
+        Long getUserId();
+        LocalDateTime getCreatedAt();
+        Double getTotalPrice();
+    }
+
+    interface StatusCount {
+        OrderStatus getStatus();
+        long getOrderCount();
+    }
+
+    interface DailyStatusTotals {
+        String getDay();
+        Integer getStatusCode();
+        long getOrderCount();
+        Double getRevenue();
+    }
+}
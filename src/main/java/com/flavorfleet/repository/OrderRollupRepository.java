@@ -0,0 +1,57 @@
+package com.flavorfleet.repository;
+
+import com.flavorfleet.entity.OrderRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderRollupRepository extends JpaRepository<OrderRollup, Long> {
+
+    // orders.status_code -> OrderStatus name (codes start at 0, ELT at 1)
+    String STATUS_NAME = "ELT(status_code + 1, 'PENDING', 'ACCEPTED', 'PREPARING', 'OUT_FOR_DELIVERY', 'DELIVERED', 'CANCELLED')";
+
+    // Live and archived orders in [from, to); each side is read through its own created_at index.
+    // Live rows the previous release inserted may not have a status_code yet.
+    String ORDERS_IN_RANGE = "(SELECT created_at, city, " +
+            "COALESCE(status_code, " + OrderRepository.LEGACY_STATUS_CODE + ") AS status_code, total_price FROM orders " +
+            "WHERE created_at >= :from AND created_at < :to UNION ALL " +
+            "SELECT created_at, city, status_code, total_price FROM orders_archive " +
+            "WHERE created_at >= :from AND created_at < :to) o";
+
+    @Query("SELECT r FROM OrderRollup r WHERE r.granularity = :granularity " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart")
+    List<OrderRollup> findRange(@Param("granularity") String granularity,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to);
+
+    @Query("SELECT COALESCE(SUM(r.revenue), 0) FROM OrderRollup r WHERE r.granularity = 'DAY' " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to")
+    Double sumDailyRevenue(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM OrderRollup r WHERE r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM OrderRollup r WHERE r.granularity = 'HOUR' AND r.bucketStart < :before")
+    int deleteHourlyBefore(@Param("before") LocalDateTime before);
+
+    // Rebuilds the hourly and daily rows for [from, to) straight from orders in two set-based statements
+    @Modifying
+    @Query(value = "INSERT INTO order_rollups (granularity, bucket_start, city, status, order_count, revenue, updated_at) " +
+                   "SELECT 'HOUR', DATE_FORMAT(created_at, '%Y-%m-%d %H:00:00'), city, " + STATUS_NAME + ", COUNT(*), " +
+                   "COALESCE(SUM(total_price), 0), NOW() FROM " + ORDERS_IN_RANGE + " " +
+                   "GROUP BY DATE_FORMAT(created_at, '%Y-%m-%d %H:00:00'), city, status_code", nativeQuery = true)
+    int insertHourly(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query(value = "INSERT INTO order_rollups (granularity, bucket_start, city, status, order_count, revenue, updated_at) " +
+                   "SELECT 'DAY', DATE(created_at), city, " + STATUS_NAME + ", COUNT(*), " +
+                   "COALESCE(SUM(total_price), 0), NOW() FROM " + ORDERS_IN_RANGE + " " +
+                   "GROUP BY DATE(created_at), city, status_code", nativeQuery = true)
+    int insertDaily(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
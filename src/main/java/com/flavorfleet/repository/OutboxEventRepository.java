@@ -0,0 +1,33 @@
+package com.flavorfleet.repository;
+
+import com.flavorfleet.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'PROCESSING', e.attempts = e.attempts + 1, e.lockedUntil = :lockedUntil "
+            + "WHERE e.id = :id AND e.status = 'PENDING'")
+    int claim(@Param("id") Long id, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'DONE', e.processedAt = :now, e.lockedUntil = NULL, e.lastError = NULL "
+            + "WHERE e.id IN :ids AND e.status = 'PROCESSING'")
+    int markDone(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Events whose worker died (or hung) past its lease become claimable again
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'PENDING', e.lockedUntil = NULL "
+            + "WHERE e.status = 'PROCESSING' AND e.lockedUntil < :now")
+    int releaseExpiredLeases(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = 'DONE' AND e.processedAt < :before")
+    int deleteDoneBefore(@Param("before") LocalDateTime before);
+}
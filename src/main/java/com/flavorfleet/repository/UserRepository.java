@@ -1,12 +1,14 @@
 package com.flavorfleet.repository;
 
 import com.flavorfleet.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +16,18 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     
     Optional<User> findByEmail(String email);
+
+    // Notification fan-out: recipients in id order, one page after the other
+    @Query("SELECT u.id AS id, u.email AS email, u.desktopNotifications AS desktopNotifications, " +
+           "u.emailOrderUpdates AS emailOrderUpdates, u.emailPromotions AS emailPromotions " +
+           "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<NotificationRecipient> findRecipientsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT u.id AS id, u.email AS email, u.desktopNotifications AS desktopNotifications, " +
+           "u.emailOrderUpdates AS emailOrderUpdates, u.emailPromotions AS emailPromotions " +
+           "FROM User u WHERE u.id IN :ids AND u.id > :afterId ORDER BY u.id")
+    List<NotificationRecipient> findRecipientsAfter(@Param("ids") Collection<Long> ids,
+                                                    @Param("afterId") long afterId, Pageable pageable);
     
     // NEW: Find all users by email (to handle duplicates)
     List<User> findAllByEmail(String email);
@@ -54,4 +68,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.role = :role AND " +
            "(u.lastLogin IS NULL OR u.lastLogin <= :threshold)")
     List<User> findInactiveUsersByRole(@Param("role") String role, @Param("threshold") LocalDateTime threshold);
-}
\ No newline at end of file
+
+    interface NotificationRecipient {
+        Long getId();
+        String getEmail();
+        Boolean getDesktopNotifications();
+        Boolean getEmailOrderUpdates();
+        Boolean getEmailPromotions();
+    }
+}
@@ -0,0 +1,153 @@
+package com.flavorfleet.service;
+
+import com.flavorfleet.dto.CategoryDTO;
+import com.flavorfleet.dto.MenuItemDTO;
+import com.flavorfleet.repository.CategoryRepository;
+import com.flavorfleet.repository.MenuItemRepository;
+import com.flavorfleet.repository.MenuRevisionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the current {@link MenuSnapshot}. The snapshot is rebuilt from the database after every
+ * committed menu mutation and published with a single reference swap, so readers always see a
+ * complete, consistent menu without locking.
+ * <p>
+ * Every mutation also bumps the single-row {@code menu_revision} counter in its own transaction.
+ * A periodic check compares it with the latest revision this instance has read or written, so
+ * changes committed by other instances are picked up within {@code menu.cache.check-interval-ms}.
+ */
+@Component
+public class MenuCache {
+    private static final Logger logger = LoggerFactory.getLogger(MenuCache.class);
+
+    private final MenuItemRepository menuItemRepository;
+    private final CategoryRepository categoryRepository;
+    private final MenuChangeFeed changeFeed;
+    private final MenuRevisionRepository menuRevisionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate rebuildTransaction;
+    private final AtomicReference<MenuSnapshot> current = new AtomicReference<>();
+    private final AtomicLong versionSequence = new AtomicLong();
+    // Latest menu_revision this instance has written or rebuilt from; only moves forward, except
+    // that a rolled-back bump resets it so the next check rebuilds
+    private final AtomicLong loadedRevision = new AtomicLong(-1);
+
+    public MenuCache(MenuItemRepository menuItemRepository,
+                     CategoryRepository categoryRepository,
+                     MenuChangeFeed changeFeed,
+                     MenuRevisionRepository menuRevisionRepository,
+                     ApplicationEventPublisher eventPublisher,
+                     PlatformTransactionManager transactionManager) {
+        this.menuItemRepository = menuItemRepository;
+        this.categoryRepository = categoryRepository;
+        this.changeFeed = changeFeed;
+        this.menuRevisionRepository = menuRevisionRepository;
+        this.eventPublisher = eventPublisher;
+        // Rebuilds run from after-commit callbacks, so they need their own transaction
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        this.rebuildTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildTransaction.setReadOnly(true);
+    }
+
+    public MenuSnapshot getSnapshot() {
+        MenuSnapshot snapshot = current.get();
+        return snapshot != null ? snapshot : rebuild();
+    }
+
+    @PostConstruct
+    public void createRevisionRow() {
+        menuRevisionRepository.createIfMissing();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    // Commits with the mutation itself, so the counter never runs ahead of the data. The new
+    // revision is recorded here as well, so a check between this commit and the rebuild that
+    // follows it does not mistake the local change for an external one.
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void bumpRevision(MenuChangedEvent event) {
+        if (event.getType() == MenuChangeType.EXTERNAL_CHANGE) {
+            return;
+        }
+        menuRevisionRepository.increment();
+        Long revision = menuRevisionRepository.findRevision();
+        if (revision != null) {
+            loadedRevision.accumulateAndGet(revision, Math::max);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        loadedRevision.set(-1);
+                    }
+                }
+            });
+        }
+    }
+
+    @Scheduled(initialDelayString = "${menu.cache.check-interval-ms:5000}",
+               fixedDelayString = "${menu.cache.check-interval-ms:5000}")
+    public void checkForExternalChanges() {
+        Long revision = menuRevisionRepository.findRevision();
+        long loaded = loadedRevision.get();
+        if (revision != null && revision != loaded) {
+            // Same path as a local change, so the feed and the search index follow along
+            eventPublisher.publishEvent(MenuChangedEvent.externalChange(
+                    "menu revision " + loaded + " -> " + revision));
+        }
+    }
+
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onMenuChanged(MenuChangedEvent event) {
+        logger.debug("Rebuilding menu snapshot after {}", event);
+        MenuSnapshot snapshot = rebuild();
+        // Recorded under the same lock as the rebuild so feed versions are strictly increasing
+        changeFeed.record(event, snapshot.getVersion());
+    }
+
+    public synchronized MenuSnapshot rebuild() {
+        long start = System.nanoTime();
+        MenuSnapshot snapshot = rebuildTransaction.execute(status -> {
+            Long revision = menuRevisionRepository.findRevision();
+            if (revision != null) {
+                loadedRevision.accumulateAndGet(revision, Math::max);
+            }
+            List<MenuItemDTO> items = menuItemRepository.findAllVisible();
+            List<CategoryDTO> categories = categoryRepository.findAll().stream()
+                    .map(category -> new CategoryDTO(category.getId(), category.getName()))
+                    .collect(Collectors.toList());
+            return new MenuSnapshot(versionSequence.incrementAndGet(), Instant.now(), items, categories);
+        });
+        current.set(snapshot);
+        logger.info("Menu snapshot v{} built with {} items and {} categories in {} ms",
+                snapshot.getVersion(), snapshot.getItems().size(), snapshot.getCategories().size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return snapshot;
+    }
+}
@@ -0,0 +1,201 @@
+package com.flavorfleet.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flavorfleet.dto.MenuChangeDTO;
+import com.flavorfleet.dto.MenuChangesDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recent menu changes, each stamped with the snapshot version it produced. Kept in a fixed-size
+ * ring so "changes since version N" is answered from memory; callers that fall behind the ring
+ * are told to refetch the full menu instead.
+ * <p>
+ * Versions count up from zero in each process, so they are qualified by an epoch drawn at startup.
+ * A caller presenting another epoch (an earlier run, or another instance behind the load balancer)
+ * is always told to resync. Changes are also pushed to SSE subscribers from a single background
+ * thread, so the committing request never waits on slow clients.
+ */
+@Component
+public class MenuChangeFeed {
+    private static final Logger logger = LoggerFactory.getLogger(MenuChangeFeed.class);
+    private static final long SSE_TIMEOUT = 30 * 60 * 1000L; // 30 minutes
+
+    private final ObjectMapper objectMapper;
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final ThreadPoolExecutor broadcaster;
+    private final int maxSubscribers;
+    private final MenuChangeDTO[] ring;
+    private int head;
+    private int size;
+    private long lastEvictedVersion;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    public MenuChangeFeed(ObjectMapper objectMapper,
+                          @Value("${menu.changes.retained:1000}") int retained,
+                          @Value("${menu.changes.max-subscribers:500}") int maxSubscribers) {
+        this.objectMapper = objectMapper;
+        this.maxSubscribers = maxSubscribers;
+        this.ring = new MenuChangeDTO[retained];
+        // One thread keeps changes in order; a full queue pushes back on the committing thread
+        this.broadcaster = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(retained),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "menu-change-feed");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    void record(MenuChangedEvent event, long version) {
+        MenuChangeDTO change = new MenuChangeDTO(version, event.getType().name(), Instant.now(),
+                event.getSavedItem(), event.getRemovedItemId(), event.getCategory());
+        synchronized (this) {
+            int slot = (head + size) % ring.length;
+            if (size == ring.length) {
+                lastEvictedVersion = ring[head].getVersion();
+                head = (head + 1) % ring.length;
+            } else {
+                size++;
+            }
+            ring[slot] = change;
+        }
+        broadcaster.execute(() -> broadcast(change));
+    }
+
+    /**
+     * @param sinceEpoch epoch {@code since} was issued under; null is taken as this process's epoch
+     *                   (clients from before epochs existed), still guarded by the range check
+     */
+    public MenuChangesDTO getChangesSince(long since, String sinceEpoch, long currentVersion) {
+        List<MenuChangeDTO> changes = new ArrayList<>();
+        boolean resync;
+        synchronized (this) {
+            // A version from the future also means it came from another epoch
+            resync = (sinceEpoch != null && !epoch.equals(sinceEpoch))
+                    || since < lastEvictedVersion || since > currentVersion;
+            if (!resync) {
+                for (int i = 0; i < size; i++) {
+                    MenuChangeDTO change = ring[(head + i) % ring.length];
+                    if (change.getVersion() > since) {
+                        changes.add(change);
+                    }
+                }
+            }
+        }
+        if (changes.stream().anyMatch(change -> MenuChangeType.BULK_IMPORT.name().equals(change.getType())
+                || MenuChangeType.EXTERNAL_CHANGE.name().equals(change.getType()))) {
+            resync = true;
+        }
+        return new MenuChangesDTO(epoch, currentVersion, resync, resync ? List.of() : changes);
+    }
+
+    /**
+     * @param since when given, changes after this version are replayed before live events (or a
+     *              "resync" event is sent if they are no longer available)
+     */
+    public SseEmitter subscribe(Long since, String sinceEpoch, long currentVersion) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many menu change subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT);
+        emitter.onCompletion(() -> unsubscribe(emitter));
+        emitter.onTimeout(() -> unsubscribe(emitter));
+        emitter.onError(e -> unsubscribe(emitter));
+        // Replayed on the broadcaster thread and registered only afterwards, so no live change can
+        // overtake the backlog; changes both replayed and broadcast are skipped the second time
+        broadcaster.execute(() -> open(emitter, since, sinceEpoch, currentVersion));
+        return emitter;
+    }
+
+    private void open(SseEmitter emitter, Long since, String sinceEpoch, long currentVersion) {
+        long lastSent = currentVersion;
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(eventId(currentVersion))
+                    .name("connected")
+                    .data(String.valueOf(currentVersion)));
+            if (since != null) {
+                MenuChangesDTO backlog = getChangesSince(since, sinceEpoch, currentVersion);
+                if (backlog.isResyncRequired()) {
+                    emitter.send(SseEmitter.event()
+                            .id(eventId(currentVersion))
+                            .name("resync")
+                            .data(String.valueOf(currentVersion)));
+                } else {
+                    for (MenuChangeDTO change : backlog.getChanges()) {
+                        send(emitter, change);
+                        lastSent = Math.max(lastSent, change.getVersion());
+                    }
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.warn("Failed to open menu change stream: {}", e.getMessage());
+            return;
+        }
+        subscribers.add(new Subscriber(emitter, lastSent));
+    }
+
+    private void unsubscribe(SseEmitter emitter) {
+        subscribers.removeIf(subscriber -> subscriber.emitter == emitter);
+    }
+
+    private void broadcast(MenuChangeDTO change) {
+        for (Subscriber subscriber : subscribers) {
+            if (change.getVersion() <= subscriber.lastReplayed) {
+                continue;
+            }
+            try {
+                send(subscriber.emitter, change);
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(subscriber);
+                logger.debug("Dropped menu change subscriber: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void send(SseEmitter emitter, MenuChangeDTO change) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(eventId(change.getVersion()))
+                .name("menu-change")
+                .data(objectMapper.writeValueAsString(change)));
+    }
+
+    // "epoch:version", so a reconnecting client can hand back both
+    private String eventId(long version) {
+        return epoch + ":" + version;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        broadcaster.shutdownNow();
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        // Highest version sent while replaying; live changes up to it were already delivered
+        private final long lastReplayed;
+
+        private Subscriber(SseEmitter emitter, long lastReplayed) {
+            this.emitter = emitter;
+            this.lastReplayed = lastReplayed;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.flavorfleet.service;
+
+public enum MenuChangeType {
+    ITEM_ADDED,
+    ITEM_UPDATED,
+    ITEM_DELETED,
+    CATEGORY_ADDED,
+    CATEGORY_RENAMED,
+    CATEGORY_DELETED,
+    // Carries no payload; consumers should refetch the menu
+    BULK_IMPORT,
+    // Committed by another instance (or outside the application); no payload, consumers should refetch
+    EXTERNAL_CHANGE
+}
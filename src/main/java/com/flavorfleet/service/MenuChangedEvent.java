@@ -0,0 +1,69 @@
+package com.flavorfleet.service;
+
+import com.flavorfleet.dto.CategoryDTO;
+import com.flavorfleet.dto.MenuItemDTO;
+
+/**
+ * Published by {@link MenuService} whenever a menu item or category is mutated, and by
+ * {@link MenuCache} when it notices a change committed elsewhere.
+ * Listeners run after the surrounding transaction commits.
+ * <p>
+ * Single-item changes carry the saved item (or the removed id) so listeners can apply them
+ * incrementally; any other change means "reload everything".
+ */
+public class MenuChangedEvent {
+
+    private final MenuChangeType type;
+    private final String reason;
+    private final MenuItemDTO savedItem;
+    private final Long removedItemId;
+    private final CategoryDTO category;
+
+    private MenuChangedEvent(MenuChangeType type, String reason, MenuItemDTO savedItem,
+                             Long removedItemId, CategoryDTO category) {
+        this.type = type;
+        this.reason = reason;
+        this.savedItem = savedItem;
+        this.removedItemId = removedItemId;
+        this.category = category;
+    }
+
+    public static MenuChangedEvent itemAdded(MenuItemDTO item) {
+        return new MenuChangedEvent(MenuChangeType.ITEM_ADDED, "item added: " + item.getId(), item, null, null);
+    }
+
+    public static MenuChangedEvent itemUpdated(MenuItemDTO item) {
+        return new MenuChangedEvent(MenuChangeType.ITEM_UPDATED, "item updated: " + item.getId(), item, null, null);
+    }
+
+    public static MenuChangedEvent itemDeleted(Long itemId) {
+        return new MenuChangedEvent(MenuChangeType.ITEM_DELETED, "item deleted: " + itemId, null, itemId, null);
+    }
+
+    public static MenuChangedEvent categoryChanged(MenuChangeType type, CategoryDTO category) {
+        return new MenuChangedEvent(type, type.name().toLowerCase() + ": " + category.getId(), null, null, category);
+    }
+
+    public static MenuChangedEvent bulkImport(String reason) {
+        return new MenuChangedEvent(MenuChangeType.BULK_IMPORT, reason, null, null, null);
+    }
+
+    public static MenuChangedEvent externalChange(String reason) {
+        return new MenuChangedEvent(MenuChangeType.EXTERNAL_CHANGE, reason, null, null, null);
+    }
+
+    public MenuChangeType getType() { return type; }
+    public String getReason() { return reason; }
+    public MenuItemDTO getSavedItem() { return savedItem; }
+    public Long getRemovedItemId() { return removedItemId; }
+    public CategoryDTO getCategory() { return category; }
+
+    public boolean isSingleItemChange() {
+        return savedItem != null || removedItemId != null;
+    }
+
+    @Override
+    public String toString() {
+        return "MenuChangedEvent{type=" + type + ", reason='" + reason + "'}";
+    }
+}
@@ -0,0 +1,131 @@
+package com.flavorfleet.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flavorfleet.dto.MenuItemDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-encoded JSON for the public menu views (whole menu, per category, per Veg/Non-Veg type and
+ * the category list). Each view is serialized once per snapshot version, optionally gzipped, and the
+ * resulting byte arrays are written straight to the response.
+ */
+@Component
+public class MenuJsonCache {
+    private static final Logger logger = LoggerFactory.getLogger(MenuJsonCache.class);
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    private final MenuCache menuCache;
+    private final ObjectMapper objectMapper;
+    private volatile Generation generation;
+
+    public MenuJsonCache(MenuCache menuCache, ObjectMapper objectMapper) {
+        this.menuCache = menuCache;
+        this.objectMapper = objectMapper;
+    }
+
+    public EncodedJson getCategories() {
+        Generation current = currentGeneration();
+        return current.views.computeIfAbsent("categories",
+                key -> encode(current.snapshot.getCategories(), current.snapshot.getCategoriesTag(), key));
+    }
+
+    /**
+     * @param category category name, or null for every category
+     * @param type     "Veg" / "Non-Veg", or null for both
+     */
+    public EncodedJson getItems(String category, String type) {
+        Generation current = currentGeneration();
+        MenuSnapshot snapshot = current.snapshot;
+        List<MenuItemDTO> items = category != null ? snapshot.getItemsByCategory(category) : snapshot.getItems();
+        if (items.isEmpty()) {
+            // Unknown categories are not cached so arbitrary query strings cannot grow the cache
+            return encode(items, snapshot.getItemsTag(), "empty");
+        }
+        String key = "items|" + (category != null ? category : "") + "|" + (type != null ? type : "");
+        return current.views.computeIfAbsent(key, k -> {
+            List<MenuItemDTO> view = type == null ? items : items.stream()
+                    .filter(item -> type.equals(item.getType()))
+                    .collect(Collectors.toList());
+            return encode(view, snapshot.getItemsTag(), k);
+        });
+    }
+
+    // Price ranges are open-ended, so these views are encoded per request rather than cached
+    public EncodedJson getItemsInPriceRange(String category, String type, Double minPrice, Double maxPrice) {
+        MenuSnapshot snapshot = currentGeneration().snapshot;
+        List<MenuItemDTO> items = snapshot.getItemsByPrice(category, type, minPrice, maxPrice);
+        String key = "price|" + (category != null ? category : "") + "|" + (type != null ? type : "")
+                + "|" + minPrice + "|" + maxPrice;
+        return encode(items, snapshot.getItemsTag(), key);
+    }
+
+    private Generation currentGeneration() {
+        MenuSnapshot snapshot = menuCache.getSnapshot();
+        Generation current = generation;
+        if (current == null || current.snapshot != snapshot) {
+            current = new Generation(snapshot);
+            generation = current;
+            logger.debug("Discarded encoded menu views, now at snapshot v{}", snapshot.getVersion());
+        }
+        return current;
+    }
+
+    private EncodedJson encode(Object value, String contentTag, String viewKey) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            byte[] gzipped = json.length >= GZIP_MIN_BYTES ? gzip(json) : null;
+            String etag = contentTag + "-" + Integer.toHexString(viewKey.hashCode());
+            return new EncodedJson(json, gzipped, etag);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode menu view " + viewKey, e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static final class Generation {
+        private final MenuSnapshot snapshot;
+        private final Map<String, EncodedJson> views = new ConcurrentHashMap<>();
+
+        private Generation(MenuSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+
+    public static final class EncodedJson {
+        private final byte[] json;
+        private final byte[] gzipped;
+        private final String etag;
+
+        EncodedJson(byte[] json, byte[] gzipped, String etag) {
+            this.json = json;
+            this.gzipped = gzipped;
+            this.etag = etag;
+        }
+
+        public byte[] getJson() { return json; }
+        public byte[] getGzipped() { return gzipped; }
+        public boolean hasGzip() { return gzipped != null; }
+        public String getEtag() { return etag; }
+    }
+}
@@ -0,0 +1,110 @@
+package com.flavorfleet.service;
+
+import com.flavorfleet.dto.MenuItemDTO;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Price index over a snapshot's items. For every type, every category and every (category, type)
+ * pair it keeps a sorted {@code double[]} of prices with a parallel {@code int[]} of positions in the
+ * snapshot's item list, so range filters are two binary searches with no boxing.
+ */
+final class MenuPriceIndex {
+
+    private static final String ANY = "";
+
+    private final List<MenuItemDTO> items;
+    private final Map<String, Slice> slices;
+
+    private MenuPriceIndex(List<MenuItemDTO> items, Map<String, Slice> slices) {
+        this.items = items;
+        this.slices = slices;
+    }
+
+    static MenuPriceIndex build(List<MenuItemDTO> items) {
+        Map<String, List<Integer>> positionsByKey = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            MenuItemDTO item = items.get(i);
+            String category = item.getCategoryName() != null ? item.getCategoryName() : ANY;
+            String type = item.getType() != null ? item.getType() : ANY;
+            positionsByKey.computeIfAbsent(key(null, null), k -> new ArrayList<>()).add(i);
+            positionsByKey.computeIfAbsent(key(null, type), k -> new ArrayList<>()).add(i);
+            positionsByKey.computeIfAbsent(key(category, null), k -> new ArrayList<>()).add(i);
+            positionsByKey.computeIfAbsent(key(category, type), k -> new ArrayList<>()).add(i);
+        }
+
+        Map<String, Slice> slices = new HashMap<>(positionsByKey.size() * 2);
+        Comparator<Integer> byPrice = Comparator.<Integer>comparingDouble(i -> items.get(i).getPrice())
+                .thenComparing(i -> items.get(i).getId());
+        positionsByKey.forEach((key, positions) -> {
+            positions.sort(byPrice);
+            double[] prices = new double[positions.size()];
+            int[] itemPositions = new int[positions.size()];
+            for (int i = 0; i < positions.size(); i++) {
+                itemPositions[i] = positions.get(i);
+                prices[i] = items.get(itemPositions[i]).getPrice();
+            }
+            slices.put(key, new Slice(prices, itemPositions));
+        });
+        return new MenuPriceIndex(items, slices);
+    }
+
+    /**
+     * Items matching the optional category and type whose price lies strictly between the optional
+     * bounds, cheapest first.
+     */
+    List<MenuItemDTO> query(String category, String type, Double minPrice, Double maxPrice) {
+        Slice slice = slices.get(key(category, type));
+        if (slice == null) {
+            return List.of();
+        }
+        int from = minPrice != null ? firstAbove(slice.prices, minPrice) : 0;
+        int to = maxPrice != null ? firstAtOrAbove(slice.prices, maxPrice) : slice.prices.length;
+        if (from >= to) {
+            return List.of();
+        }
+        List<MenuItemDTO> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(items.get(slice.positions[i]));
+        }
+        return result;
+    }
+
+    private static String key(String category, String type) {
+        return (category != null ? category : ANY) + '\u0000' + (type != null ? type : ANY);
+    }
+
+    // Index of the first price strictly greater than the bound
+    private static int firstAbove(double[] prices, double bound) {
+        int low = 0, high = prices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] <= bound) low = mid + 1; else high = mid;
+        }
+        return low;
+    }
+
+    // Index of the first price greater than or equal to the bound
+    private static int firstAtOrAbove(double[] prices, double bound) {
+        int low = 0, high = prices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] < bound) low = mid + 1; else high = mid;
+        }
+        return low;
+    }
+
+    private static final class Slice {
+        private final double[] prices;
+        private final int[] positions;
+
+        private Slice(double[] prices, int[] positions) {
+            this.prices = prices;
+            this.positions = positions;
+        }
+    }
+}
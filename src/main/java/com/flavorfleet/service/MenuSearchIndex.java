@@ -0,0 +1,287 @@
+package com.flavorfleet.service;
+
+import com.flavorfleet.dto.MenuItemDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over menu item name, description and category name. Terms live in a
+ * sorted vocabulary so prefix lookups are a range scan, and short edit-distance matches are tried
+ * when a query term has no exact hit. Single-item mutations are applied incrementally; anything
+ * else (category changes, startup) reindexes from the current {@link MenuSnapshot}.
+ */
+@Component
+public class MenuSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(MenuSearchIndex.class);
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_FACTOR = 0.6;
+    private static final double[] TYPO_FACTORS = {1.0, 0.5, 0.3};
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private final MenuCache menuCache;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+
+    public MenuSearchIndex(MenuCache menuCache) {
+        this.menuCache = menuCache;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reindex();
+    }
+
+    // Runs after MenuCache so full reindexes read the snapshot that includes this change
+    @Order(2)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onMenuChanged(MenuChangedEvent event) {
+        if (!event.isSingleItemChange()) {
+            reindex();
+            return;
+        }
+        // The snapshot already includes this change; an item it leaves out (e.g. its category was
+        // deleted meanwhile) is not on the menu, so it must not be searchable either
+        Long id = event.getSavedItem() != null ? event.getSavedItem().getId() : event.getRemovedItemId();
+        MenuItemDTO visible = event.getSavedItem() != null ? menuCache.getSnapshot().findItem(id) : null;
+        lock.writeLock().lock();
+        try {
+            index.remove(id);
+            if (visible != null) {
+                index.add(visible);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Writers are serialized so an incremental update can never be overwritten by an older full reindex
+    public synchronized void reindex() {
+        long start = System.nanoTime();
+        MenuSnapshot snapshot = menuCache.getSnapshot();
+        Index rebuilt = new Index();
+        for (MenuItemDTO item : snapshot.getItems()) {
+            rebuilt.add(item);
+        }
+        lock.writeLock().lock();
+        try {
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Menu search index built from snapshot v{} with {} items and {} terms in {} ms",
+                snapshot.getVersion(), rebuilt.docs.size(), rebuilt.postings.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Items matching every term of the query, best match first. Each query term may match a
+     * document term exactly, as a prefix, or within a small edit distance, with decreasing score.
+     *
+     * @param type optional "Veg" / "Non-Veg" filter
+     */
+    public List<MenuItemDTO> search(String query, String type, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = index.match(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Long, Double> combined = new HashMap<>();
+                    Map<Long, Double> smaller = scores.size() <= termScores.size() ? scores : termScores;
+                    Map<Long, Double> larger = smaller == scores ? termScores : scores;
+                    smaller.forEach((id, score) -> {
+                        Double other = larger.get(id);
+                        if (other != null) {
+                            combined.put(id, score + other);
+                        }
+                    });
+                    scores = combined;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+                    .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+            PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(limit + 1, ranking);
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                if (type != null && !type.equals(index.docs.get(entry.getKey()).item.getType())) {
+                    continue;
+                }
+                top.offer(entry);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<MenuItemDTO> results = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                results.add(index.docs.get(top.poll().getKey()).item);
+            }
+            Collections.reverse(results);
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static int maxEdits(String term) {
+        if (term.length() < 4) return 0;
+        return term.length() < 8 ? 1 : 2;
+    }
+
+    // Levenshtein distance, or max + 1 as soon as it is known to exceed max
+    static int boundedEditDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class Doc {
+        private final MenuItemDTO item;
+        private final Set<String> terms;
+
+        private Doc(MenuItemDTO item, Set<String> terms) {
+            this.item = item;
+            this.terms = terms;
+        }
+    }
+
+    private static final class Index {
+        // term -> (item id -> field weight)
+        private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        private final Map<Long, Doc> docs = new HashMap<>();
+
+        private void add(MenuItemDTO item) {
+            Map<String, Integer> weights = new HashMap<>();
+            addField(weights, item.getName(), NAME_WEIGHT);
+            addField(weights, item.getCategoryName(), CATEGORY_WEIGHT);
+            addField(weights, item.getDescription(), DESCRIPTION_WEIGHT);
+            weights.forEach((term, weight) ->
+                    postings.computeIfAbsent(term, k -> new HashMap<>()).put(item.getId(), weight));
+            docs.put(item.getId(), new Doc(item, weights.keySet()));
+        }
+
+        private void remove(Long id) {
+            Doc doc = docs.remove(id);
+            if (doc == null) {
+                return;
+            }
+            for (String term : doc.terms) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting != null) {
+                    posting.remove(id);
+                    if (posting.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+
+        private static void addField(Map<String, Integer> weights, String text, int weight) {
+            for (String term : tokenize(text)) {
+                weights.merge(term, weight, Math::max);
+            }
+        }
+
+        // Best score per document for a single query term
+        private Map<Long, Double> match(String term) {
+            Map<Long, Double> scores = new HashMap<>();
+            Map<Long, Integer> exact = postings.get(term);
+            if (exact != null) {
+                collect(scores, exact, 1.0);
+            }
+            if (term.length() >= MIN_PREFIX_LENGTH) {
+                for (Map.Entry<String, Map<Long, Integer>> entry
+                        : postings.subMap(term, false, term + Character.MAX_VALUE, false).entrySet()) {
+                    collect(scores, entry.getValue(), PREFIX_FACTOR);
+                }
+            }
+            int maxEdits = maxEdits(term);
+            if (exact == null && maxEdits > 0) {
+                // Typos rarely hit the first letter, so only that slice of the vocabulary is scanned
+                String first = term.substring(0, 1);
+                for (Map.Entry<String, Map<Long, Integer>> entry
+                        : postings.subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+                    int distance = boundedEditDistance(term, entry.getKey(), maxEdits);
+                    if (distance > 0 && distance <= maxEdits) {
+                        collect(scores, entry.getValue(), TYPO_FACTORS[distance]);
+                    }
+                }
+            }
+            return scores;
+        }
+
+        private static void collect(Map<Long, Double> scores, Map<Long, Integer> posting, double factor) {
+            posting.forEach((id, weight) -> scores.merge(id, weight * factor, Math::max));
+        }
+    }
+}
@@ -1,67 +1,164 @@
 package com.flavorfleet.service;
 
 import com.flavorfleet.dto.CategoryDTO;
+import com.flavorfleet.dto.MenuChangesDTO;
+import com.flavorfleet.dto.MenuImportResultDTO;
 import com.flavorfleet.dto.MenuItemDTO;
+import com.flavorfleet.dto.MenuPageDTO;
 import com.flavorfleet.entity.Category;
 import com.flavorfleet.entity.MenuItem;
 import com.flavorfleet.repository.CategoryRepository;
 import com.flavorfleet.repository.MenuItemRepository;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class MenuService {
     private static final Logger logger = LoggerFactory.getLogger(MenuService.class);
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_IMPORT_ROWS = 10_000;
+    private static final int IMPORT_BATCH_SIZE = 500;
+    private static final String INSERT_MENU_ITEM_SQL =
+            "INSERT INTO menu_items (name, price, description, image, category_id, type) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_MENU_ITEM_SQL =
+            "UPDATE menu_items SET name = ?, price = ?, description = ?, image = ?, category_id = ?, type = ? WHERE id = ?";
+    private static final List<String> MENU_ITEM_FIELDS = List.of(
+            "id", "name", "price", "description", "image", "categoryId", "categoryName", "type");
     private final MenuItemRepository menuItemRepository;
     private final CategoryRepository categoryRepository;
+    private final MenuCache menuCache;
+    private final MenuChangeFeed menuChangeFeed;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
 
-    public MenuService(MenuItemRepository menuItemRepository, CategoryRepository categoryRepository) {
+    public MenuService(MenuItemRepository menuItemRepository,
+                       CategoryRepository categoryRepository,
+                       MenuCache menuCache,
+                       MenuChangeFeed menuChangeFeed,
+                       ApplicationEventPublisher eventPublisher,
+                       JdbcTemplate jdbcTemplate) {
         this.menuItemRepository = menuItemRepository;
         this.categoryRepository = categoryRepository;
+        this.menuCache = menuCache;
+        this.menuChangeFeed = menuChangeFeed;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
-    @Transactional(readOnly = true)
+    // Read paths are served from the in-memory snapshot and never hit the database
     public List<MenuItemDTO> getAllMenuItems() {
         logger.info("Fetching all menu items");
-        return menuItemRepository.findAll().stream()
-                .filter(item -> item.getCategory() == null || !item.getCategory().isDeleted())
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return menuCache.getSnapshot().getItems();
     }
 
     // NEW: Added for type and price filtering
-    @Transactional(readOnly = true)
     public List<MenuItemDTO> getMenuItemsByTypeAndPrice(String type, Double minPrice, Double maxPrice) {
         logger.info("Fetching menu items for type: {}, minPrice: {}, maxPrice: {}", type, minPrice, maxPrice);
-        return menuItemRepository.findByTypeAndPrice(type, minPrice, maxPrice).stream()
-                .filter(item -> item.getCategory() == null || !item.getCategory().isDeleted())
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return menuCache.getSnapshot().getItemsByTypeAndPrice(type, minPrice, maxPrice);
     }
 
-    @Transactional(readOnly = true)
     public List<MenuItemDTO> getMenuItemsByCategory(String category) {
         if (category == null || category.trim().isEmpty()) {
             throw new IllegalArgumentException("Category cannot be null or empty");
         }
         logger.info("Fetching menu items for category: {}", category);
-        return menuItemRepository.findByCategoryName(category).stream()
-                .filter(item -> item.getCategory() == null || !item.getCategory().isDeleted())
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return menuCache.getSnapshot().getItemsByCategory(category);
     }
 
-    @Transactional(readOnly = true)
     public List<CategoryDTO> getAllCategories() {
         logger.info("Fetching all categories");
-        return categoryRepository.findAll().stream()
-                .map(category -> new CategoryDTO(category.getId(), category.getName()))
-                .collect(Collectors.toList());
+        return menuCache.getSnapshot().getCategories();
+    }
+
+    /**
+     * One keyset page of menu items ordered by id. Only the requested fields are returned; when
+     * {@code fields} is empty every field is included.
+     *
+     * @param afterId cursor from the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public MenuPageDTO getMenuItemPage(String category, String type, Long afterId, int limit, List<String> fields) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (afterId != null && afterId < 0) {
+            throw new IllegalArgumentException("Cursor must not be negative");
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        if (fields != null) {
+            for (String field : fields) {
+                String trimmed = field.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                if (!MENU_ITEM_FIELDS.contains(trimmed)) {
+                    throw new IllegalArgumentException("Unknown field: " + trimmed);
+                }
+                selected.add(trimmed);
+            }
+        }
+        if (selected.isEmpty()) {
+            selected.addAll(MENU_ITEM_FIELDS);
+        }
+        logger.info("Fetching menu page after: {}, limit: {}", afterId, limit);
+
+        // One extra row tells us whether another page exists without a count query
+        List<MenuItemDTO> rows = menuItemRepository.findPageAfter(
+                afterId != null ? afterId : 0L, category, type, PageRequest.of(0, limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<MenuItemDTO> page = hasMore ? rows.subList(0, limit) : rows;
+
+        List<Map<String, Object>> items = new ArrayList<>(page.size());
+        for (MenuItemDTO item : page) {
+            items.add(toFieldMap(item, selected));
+        }
+        Long nextCursor = hasMore ? page.get(page.size() - 1).getId() : null;
+        return new MenuPageDTO(items, nextCursor, hasMore);
+    }
+
+    public MenuChangesDTO getMenuChanges(long since, String epoch) {
+        if (since < 0) {
+            throw new IllegalArgumentException("Version must not be negative");
+        }
+        return menuChangeFeed.getChangesSince(since, epoch, menuCache.getSnapshot().getVersion());
+    }
+
+    public SseEmitter subscribeToMenuChanges(Long since, String epoch) {
+        if (since != null && since < 0) {
+            throw new IllegalArgumentException("Version must not be negative");
+        }
+        return menuChangeFeed.subscribe(since, epoch, menuCache.getSnapshot().getVersion());
+    }
+
+    public String getMenuEpoch() {
+        return menuChangeFeed.getEpoch();
+    }
+
+    public MenuSnapshot getMenuSnapshot() {
+        return menuCache.getSnapshot();
     }
 
     @Transactional
@@ -78,7 +175,9 @@ public class MenuService {
         }
         Category category = new Category(name);
         Category savedCategory = categoryRepository.save(category);
-        return new CategoryDTO(savedCategory.getId(), savedCategory.getName());
+        CategoryDTO saved = new CategoryDTO(savedCategory.getId(), savedCategory.getName());
+        eventPublisher.publishEvent(MenuChangedEvent.categoryChanged(MenuChangeType.CATEGORY_ADDED, saved));
+        return saved;
     }
 
     @Transactional
@@ -103,6 +202,8 @@ public class MenuService {
         }
         category.setName(newName);
         categoryRepository.save(category);
+        eventPublisher.publishEvent(MenuChangedEvent.categoryChanged(
+                MenuChangeType.CATEGORY_RENAMED, new CategoryDTO(id, newName)));
         return true;
     }
 
@@ -114,11 +215,13 @@ public class MenuService {
         logger.info("Soft deleting category with ID: {}", id);
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Category not found with ID: " + id));
-        if (!category.getMenuItems().isEmpty()) {
+        if (menuItemRepository.existsByCategoryId(id)) {
             throw new IllegalStateException("Cannot delete category with associated menu items");
         }
         category.setDeleted(true);
         categoryRepository.save(category);
+        eventPublisher.publishEvent(MenuChangedEvent.categoryChanged(
+                MenuChangeType.CATEGORY_DELETED, new CategoryDTO(id, category.getName())));
         return true;
     }
 
@@ -140,7 +243,9 @@ public class MenuService {
                 menuItemDTO.getType()
         );
         MenuItem savedItem = menuItemRepository.save(menuItem);
-        return toDTO(savedItem);
+        MenuItemDTO saved = toDTO(savedItem);
+        eventPublisher.publishEvent(MenuChangedEvent.itemAdded(saved));
+        return saved;
     }
 
     @Transactional
@@ -164,7 +269,9 @@ public class MenuService {
         menuItem.setCategory(category);
         menuItem.setType(menuItemDTO.getType());
         MenuItem updatedItem = menuItemRepository.save(menuItem);
-        return toDTO(updatedItem);
+        MenuItemDTO updated = toDTO(updatedItem);
+        eventPublisher.publishEvent(MenuChangedEvent.itemUpdated(updated));
+        return updated;
     }
 
     @Transactional
@@ -174,9 +281,198 @@ public class MenuService {
             return false;
         }
         menuItemRepository.deleteById(id);
+        eventPublisher.publishEvent(MenuChangedEvent.itemDeleted(id));
         return true;
     }
 
+    /**
+     * Bulk insert/update. Rows with an id update that item, rows without one are inserted. Invalid
+     * rows are reported by position and skipped; valid rows are written with JDBC batches in one
+     * transaction.
+     */
+    @Transactional
+    public MenuImportResultDTO importMenuItems(List<MenuItemDTO> rows) {
+        if (rows == null || rows.isEmpty()) {
+            throw new IllegalArgumentException("No menu items provided");
+        }
+        MenuImportResultDTO result = new MenuImportResultDTO(rows.size());
+        importRows(rows, result);
+        return result;
+    }
+
+    // Expects a header row; columns are matched by name (id, name, price, description, image,
+    // categoryId, categoryName, type) and a category may be given by id or by name
+    @Transactional
+    public MenuImportResultDTO importMenuItemsCsv(String csv) {
+        if (csv == null || csv.trim().isEmpty()) {
+            throw new IllegalArgumentException("No menu items provided");
+        }
+        CSVFormat format = CSVFormat.DEFAULT.builder()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .setIgnoreHeaderCase(true)
+                .setIgnoreEmptyLines(true)
+                .setTrim(true)
+                .build();
+        List<MenuItemDTO> rows = new ArrayList<>();
+        MenuImportResultDTO result = new MenuImportResultDTO();
+        try (CSVParser parser = CSVParser.parse(new StringReader(csv), format)) {
+            for (CSVRecord record : parser) {
+                try {
+                    rows.add(fromCsvRecord(record));
+                } catch (IllegalArgumentException e) {
+                    // Unparseable rows keep their position so later row numbers stay accurate
+                    rows.add(null);
+                    result.addError(rows.size(), e.getMessage());
+                }
+            }
+        } catch (IOException | UncheckedIOException | IllegalStateException e) {
+            throw new IllegalArgumentException("Malformed CSV: " + e.getMessage());
+        }
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("No menu items provided");
+        }
+        result.setReceived(rows.size());
+        importRows(rows, result);
+        return result;
+    }
+
+    private void importRows(List<MenuItemDTO> rows, MenuImportResultDTO result) {
+        if (rows.size() > MAX_IMPORT_ROWS) {
+            throw new IllegalArgumentException("A single import is limited to " + MAX_IMPORT_ROWS + " rows");
+        }
+        logger.info("Importing {} menu items", rows.size());
+
+        // Categories are resolved once for the whole import instead of once per row
+        List<Category> categories = categoryRepository.findAll();
+        Map<Long, Category> categoriesById = categories.stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        Map<String, Category> categoriesByName = new HashMap<>();
+        for (Category category : categories) {
+            categoriesByName.put(category.getName().toLowerCase(), category);
+        }
+
+        Set<Long> requestedIds = new HashSet<>();
+        for (MenuItemDTO row : rows) {
+            if (row != null && row.getId() != null) {
+                requestedIds.add(row.getId());
+            }
+        }
+        Set<Long> existingIds = new HashSet<>();
+        List<Long> idList = new ArrayList<>(requestedIds);
+        for (int from = 0; from < idList.size(); from += IMPORT_BATCH_SIZE) {
+            existingIds.addAll(menuItemRepository.findExistingIds(
+                    idList.subList(from, Math.min(from + IMPORT_BATCH_SIZE, idList.size()))));
+        }
+
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        Set<Long> seenIds = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            MenuItemDTO row = rows.get(i);
+            int rowNumber = i + 1;
+            if (row == null) {
+                continue;
+            }
+            try {
+                if (row.getCategoryId() == null && row.getCategoryName() != null) {
+                    Category byName = categoriesByName.get(row.getCategoryName().trim().toLowerCase());
+                    if (byName == null) {
+                        throw new IllegalArgumentException("Category not found: " + row.getCategoryName());
+                    }
+                    row.setCategoryId(byName.getId());
+                }
+                validateMenuItemDTO(row);
+                if (row.getName().length() > 100) {
+                    throw new IllegalArgumentException("Menu item name must not exceed 100 characters");
+                }
+                if (row.getDescription() != null && row.getDescription().length() > 500) {
+                    throw new IllegalArgumentException("Description must not exceed 500 characters");
+                }
+                Category category = categoriesById.get(row.getCategoryId());
+                if (category == null) {
+                    throw new IllegalArgumentException("Category not found with ID: " + row.getCategoryId());
+                }
+                // Items of a deleted category would be stored but never shown on the menu
+                if (category.isDeleted()) {
+                    throw new IllegalArgumentException("Cannot import menu item into deleted category: " + category.getName());
+                }
+                if (row.getId() == null) {
+                    inserts.add(new Object[] {row.getName(), row.getPrice(), row.getDescription(),
+                            row.getImage(), row.getCategoryId(), row.getType()});
+                } else {
+                    if (!existingIds.contains(row.getId())) {
+                        throw new IllegalArgumentException("Menu item not found with ID: " + row.getId());
+                    }
+                    if (!seenIds.add(row.getId())) {
+                        throw new IllegalArgumentException("Duplicate menu item ID in import: " + row.getId());
+                    }
+                    updates.add(new Object[] {row.getName(), row.getPrice(), row.getDescription(),
+                            row.getImage(), row.getCategoryId(), row.getType(), row.getId()});
+                }
+            } catch (IllegalArgumentException e) {
+                result.addError(rowNumber, e.getMessage());
+            }
+        }
+        result.getErrors().sort((a, b) -> Integer.compare(a.getRow(), b.getRow()));
+
+        batchUpdate(INSERT_MENU_ITEM_SQL, inserts);
+        batchUpdate(UPDATE_MENU_ITEM_SQL, updates);
+        result.setInserted(inserts.size());
+        result.setUpdated(updates.size());
+        logger.info("Menu import finished: {} inserted, {} updated, {} rejected",
+                inserts.size(), updates.size(), result.getErrors().size());
+        if (!inserts.isEmpty() || !updates.isEmpty()) {
+            eventPublisher.publishEvent(MenuChangedEvent.bulkImport(
+                    "bulk import: " + inserts.size() + " added, " + updates.size() + " updated"));
+        }
+    }
+
+    private void batchUpdate(String sql, List<Object[]> args) {
+        for (int from = 0; from < args.size(); from += IMPORT_BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, args.subList(from, Math.min(from + IMPORT_BATCH_SIZE, args.size())));
+        }
+    }
+
+    private static MenuItemDTO fromCsvRecord(CSVRecord record) {
+        MenuItemDTO dto = new MenuItemDTO();
+        dto.setId(parseLong(csvValue(record, "id"), "id"));
+        dto.setName(csvValue(record, "name"));
+        String price = csvValue(record, "price");
+        if (price != null) {
+            try {
+                dto.setPrice(Double.parseDouble(price));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid price: " + price);
+            }
+        }
+        dto.setDescription(csvValue(record, "description"));
+        dto.setImage(csvValue(record, "image"));
+        dto.setCategoryId(parseLong(csvValue(record, "categoryId"), "categoryId"));
+        dto.setCategoryName(csvValue(record, "categoryName"));
+        dto.setType(csvValue(record, "type"));
+        return dto;
+    }
+
+    private static String csvValue(CSVRecord record, String column) {
+        if (!record.isMapped(column) || !record.isSet(column)) {
+            return null;
+        }
+        String value = record.get(column);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Long parseLong(String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
     private void validateMenuItemDTO(MenuItemDTO menuItemDTO) {
         if (menuItemDTO.getName() == null || menuItemDTO.getName().trim().isEmpty()) {
             throw new IllegalArgumentException("Menu item name is required");
@@ -192,6 +488,24 @@ public class MenuService {
         }
     }
 
+    private static Map<String, Object> toFieldMap(MenuItemDTO item, Set<String> fields) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (String field : fields) {
+            switch (field) {
+                case "id" -> map.put(field, item.getId());
+                case "name" -> map.put(field, item.getName());
+                case "price" -> map.put(field, item.getPrice());
+                case "description" -> map.put(field, item.getDescription());
+                case "image" -> map.put(field, item.getImage());
+                case "categoryId" -> map.put(field, item.getCategoryId());
+                case "categoryName" -> map.put(field, item.getCategoryName());
+                case "type" -> map.put(field, item.getType());
+                default -> { }
+            }
+        }
+        return map;
+    }
+
     private MenuItemDTO toDTO(MenuItem menuItem) {
         Category cat = menuItem.getCategory();
         return new MenuItemDTO(
@@ -0,0 +1,126 @@
+package com.flavorfleet.service;
+
+import com.flavorfleet.dto.CategoryDTO;
+import com.flavorfleet.dto.MenuItemDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of the public menu at a given version. Built by {@link MenuCache}
+ * and swapped atomically whenever a menu mutation commits, so reads never touch the database.
+ */
+public final class MenuSnapshot {
+
+    private final long version;
+    private final Instant builtAt;
+    private final List<MenuItemDTO> items;
+    private final Map<String, List<MenuItemDTO>> itemsByCategory;
+    private final List<CategoryDTO> categories;
+    private final String itemsTag;
+    private final String categoriesTag;
+    private final MenuPriceIndex priceIndex;
+    // Items sorted by id, for checkout pricing lookups without boxing
+    private final long[] sortedIds;
+    private final MenuItemDTO[] itemsBySortedId;
+
+    MenuSnapshot(long version, Instant builtAt, List<MenuItemDTO> items, List<CategoryDTO> categories) {
+        this.version = version;
+        this.builtAt = builtAt;
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+        this.categories = Collections.unmodifiableList(new ArrayList<>(categories));
+
+        Map<String, List<MenuItemDTO>> grouped = new LinkedHashMap<>();
+        for (MenuItemDTO item : this.items) {
+            grouped.computeIfAbsent(item.getCategoryName(), k -> new ArrayList<>()).add(item);
+        }
+        grouped.replaceAll((name, list) -> Collections.unmodifiableList(list));
+        this.itemsByCategory = Collections.unmodifiableMap(grouped);
+        this.priceIndex = MenuPriceIndex.build(this.items);
+
+        MenuItemDTO[] byId = this.items.stream()
+                .filter(item -> item.getId() != null)
+                .sorted(Comparator.comparingLong(MenuItemDTO::getId))
+                .toArray(MenuItemDTO[]::new);
+        this.sortedIds = new long[byId.length];
+        for (int i = 0; i < byId.length; i++) {
+            sortedIds[i] = byId[i].getId();
+        }
+        this.itemsBySortedId = byId;
+
+        this.itemsTag = contentTag(digest -> {
+            for (MenuItemDTO item : this.items) {
+                update(digest, item.getId(), item.getName(), item.getPrice(), item.getDescription(),
+                        item.getImage(), item.getCategoryId(), item.getCategoryName(), item.getType());
+            }
+        });
+        this.categoriesTag = contentTag(digest -> {
+            for (CategoryDTO category : this.categories) {
+                update(digest, category.getId(), category.getName());
+            }
+        });
+    }
+
+    public long getVersion() { return version; }
+    public Instant getBuiltAt() { return builtAt; }
+    public List<MenuItemDTO> getItems() { return items; }
+    public List<CategoryDTO> getCategories() { return categories; }
+
+    // Content hashes rather than the version counter, so tags survive restarts and match across instances
+    public String getItemsTag() { return itemsTag; }
+    public String getCategoriesTag() { return categoriesTag; }
+
+    public List<MenuItemDTO> getItemsByCategory(String categoryName) {
+        return itemsByCategory.getOrDefault(categoryName, List.of());
+    }
+
+    /** The visible menu item with this id, or null if it is unknown, deleted or hidden. */
+    public MenuItemDTO findItem(long id) {
+        int index = Arrays.binarySearch(sortedIds, id);
+        return index >= 0 ? itemsBySortedId[index] : null;
+    }
+
+    // Null filters are ignored and price bounds are exclusive; results are ordered cheapest first
+    public List<MenuItemDTO> getItemsByTypeAndPrice(String type, Double minPrice, Double maxPrice) {
+        return priceIndex.query(null, type, minPrice, maxPrice);
+    }
+
+    public List<MenuItemDTO> getItemsByPrice(String categoryName, String type, Double minPrice, Double maxPrice) {
+        return priceIndex.query(categoryName, type, minPrice, maxPrice);
+    }
+
+    private interface DigestWriter {
+        void write(MessageDigest digest);
+    }
+
+    private static String contentTag(DigestWriter writer) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            writer.write(digest);
+            byte[] hash = digest.digest();
+            StringBuilder tag = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                tag.append(String.format("%02x", hash[i]));
+            }
+            return tag.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, Object... fields) {
+        for (Object field : fields) {
+            digest.update(String.valueOf(field).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.flavorfleet.service;
+
+import com.flavorfleet.dto.NotificationDTO;
+import com.flavorfleet.entity.Notification;
+import com.flavorfleet.entity.SentNotification;
+import com.flavorfleet.repository.SentNotificationRepository;
+import com.flavorfleet.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers broadcasts and large notification sends in the background. A job pages through its
+ * recipients in user id order, inserts their {@code notifications} rows with one JDBC batch per
+ * page and records its progress (cursor and counters) on the {@link SentNotification} in the same
+ * transaction, so an interrupted job resumes where it stopped without duplicating rows. SSE pushes
+ * and emails go to two separate bounded pools; when one is full the job thread does the work
+ * itself, which throttles the job instead of growing a queue.
+ * <p>
+ * Jobs are claimed with a lease on the {@code sent_notifications} row, tagged with a token for the
+ * run. Every progress update is conditional on that token, so a run whose lease was taken over
+ * (after a stall longer than the lease) stops at its next update instead of writing rows twice.
+ * The lease is renewed while the job thread sends. A sweep picks up jobs that were never started or
+ * whose instance died, so any instance can finish any job. Emails that were queued but not yet sent
+ * when an instance dies are not retried.
+ */
+@Service
+public class NotificationFanoutService {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationFanoutService.class);
+    // Matches the allocationSize of notification_seq, see reserveIds
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private final SentNotificationRepository sentNotificationRepository;
+    private final UserRepository userRepository;
+    private final NotificationService notificationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor jobExecutor;
+    private final ThreadPoolExecutor emailExecutor;
+    private final ThreadPoolExecutor sseExecutor;
+    private final int pageSize;
+    private final long leaseSeconds;
+
+    public NotificationFanoutService(SentNotificationRepository sentNotificationRepository,
+                                     UserRepository userRepository,
+                                     @Lazy NotificationService notificationService,
+                                     JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${notifications.fanout.page-size:1000}") int pageSize,
+                                     @Value("${notifications.fanout.lease-seconds:120}") long leaseSeconds,
+                                     @Value("${notifications.fanout.jobs:1}") int jobs,
+                                     @Value("${notifications.fanout.email-workers:8}") int emailWorkers,
+                                     @Value("${notifications.fanout.email-queue-capacity:2000}") int emailQueueCapacity,
+                                     @Value("${notifications.fanout.sse-workers:2}") int sseWorkers,
+                                     @Value("${notifications.fanout.sse-queue-capacity:10000}") int sseQueueCapacity) {
+        this.sentNotificationRepository = sentNotificationRepository;
+        this.userRepository = userRepository;
+        this.notificationService = notificationService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pageSize = pageSize;
+        this.leaseSeconds = leaseSeconds;
+        // Jobs beyond the queue are dropped here and picked up by the sweep
+        this.jobExecutor = pool("notification-fanout-", jobs, 100, new ThreadPoolExecutor.AbortPolicy());
+        this.emailExecutor = pool("notification-email-", emailWorkers, emailQueueCapacity,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.sseExecutor = pool("notification-sse-", sseWorkers, sseQueueCapacity,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private static ThreadPoolExecutor pool(String prefix, int threads, int capacity,
+                                           RejectedExecutionHandler rejection) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(capacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, rejection);
+    }
+
+    /**
+     * Starts the job for a QUEUED notification once the current transaction (if any) commits.
+     */
+    public void submit(Long sentNotificationId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    start(sentNotificationId);
+                }
+            });
+        } else {
+            start(sentNotificationId);
+        }
+    }
+
+    private void start(Long sentNotificationId) {
+        try {
+            jobExecutor.execute(() -> run(sentNotificationId));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Fan-out queue is full; notification {} is left to the sweep", sentNotificationId);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${notifications.fanout.sweep-interval-ms:60000}",
+               fixedDelayString = "${notifications.fanout.sweep-interval-ms:60000}")
+    public void sweep() {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM sent_notifications WHERE status = 'QUEUED' " +
+                "OR (status = 'SENDING' AND locked_until < ?)", Long.class, Timestamp.valueOf(LocalDateTime.now()));
+        for (Long id : ids) {
+            start(id);
+        }
+    }
+
+    private void run(Long id) {
+        String owner = claim(id);
+        if (owner == null) {
+            return; // running elsewhere or already finished
+        }
+        long start = System.nanoTime();
+        try {
+            Job job = transactionTemplate.execute(status -> sentNotificationRepository.findById(id)
+                    .map(sn -> new Job(sn, owner)).orElse(null));
+            if (job == null) {
+                return;
+            }
+            job.renewLeaseAt = System.nanoTime() + renewIntervalNanos();
+            if (job.totalRecipients == 0) {
+                job.totalRecipients = job.userIds.isEmpty() ? userRepository.count() : job.userIds.size();
+                requireLease(jdbcTemplate.update("UPDATE sent_notifications SET total_recipients = ? " +
+                        "WHERE id = ? AND lease_owner = ?", job.totalRecipients, id, owner));
+            }
+            logger.info("Fan-out of notification {} to {} recipient(s) started after user {}",
+                    id, job.totalRecipients, job.lastUserId);
+
+            List<UserRepository.NotificationRecipient> page;
+            do {
+                PageRequest pageRequest = PageRequest.of(0, pageSize);
+                page = job.userIds.isEmpty()
+                        ? userRepository.findRecipientsAfter(job.lastUserId, pageRequest)
+                        : userRepository.findRecipientsAfter(job.userIds, job.lastUserId, pageRequest);
+                if (!page.isEmpty()) {
+                    deliverPage(job, page);
+                }
+            } while (page.size() == pageSize);
+
+            // Progress stays SENDING until the emails this job queued have gone out
+            while (job.pendingEmails.get() > 0) {
+                Thread.sleep(1000);
+                extendLease(job);
+            }
+            requireLease(jdbcTemplate.update("UPDATE sent_notifications SET status = 'SENT', sent_at = ?, " +
+                            "completed_at = ?, emails_sent = ?, emails_failed = ?, locked_until = NULL, lease_owner = NULL " +
+                            "WHERE id = ? AND lease_owner = ?",
+                    Timestamp.valueOf(LocalDateTime.now()), Timestamp.valueOf(LocalDateTime.now()),
+                    job.emailsSent.get(), job.emailsFailed.get(), id, owner));
+            logger.info("Fan-out of notification {} finished: {} recipient(s), {} email(s) sent, {} failed in {} ms",
+                    id, job.processed, job.emailsSent.get(), job.emailsFailed.get(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (LeaseLostException e) {
+            // Another run owns the job now and carries on from the progress recorded so far
+            logger.warn("Fan-out of notification {} lost its lease; stopping this run", id);
+        } catch (RuntimeException e) {
+            // Back to the queue; the sweep resumes it from the last recorded user
+            logger.error("Fan-out of notification {} failed, will resume: {}", id, e.getMessage(), e);
+            jdbcTemplate.update("UPDATE sent_notifications SET status = 'QUEUED', locked_until = NULL, lease_owner = NULL " +
+                    "WHERE id = ? AND lease_owner = ?", id, owner);
+        }
+    }
+
+    // Returns the lease token of this run, or null when the job is not claimable
+    private String claim(Long id) {
+        LocalDateTime now = LocalDateTime.now();
+        String owner = UUID.randomUUID().toString();
+        int claimed = jdbcTemplate.update("UPDATE sent_notifications SET status = 'SENDING', locked_until = ?, " +
+                        "lease_owner = ? WHERE id = ? AND (status = 'QUEUED' OR (status = 'SENDING' AND locked_until < ?))",
+                Timestamp.valueOf(now.plusSeconds(leaseSeconds)), owner, id, Timestamp.valueOf(now));
+        return claimed > 0 ? owner : null;
+    }
+
+    private void extendLease(Job job) {
+        requireLease(jdbcTemplate.update("UPDATE sent_notifications SET locked_until = ?, emails_sent = ?, " +
+                        "emails_failed = ? WHERE id = ? AND lease_owner = ?",
+                Timestamp.valueOf(LocalDateTime.now().plusSeconds(leaseSeconds)),
+                job.emailsSent.get(), job.emailsFailed.get(), job.id, job.owner));
+        job.renewLeaseAt = System.nanoTime() + renewIntervalNanos();
+    }
+
+    // Called between recipients: emails sent on the job thread (full pool) can take longer than a lease
+    private void renewLeaseIfDue(Job job) {
+        if (System.nanoTime() - job.renewLeaseAt >= 0) {
+            extendLease(job);
+        }
+    }
+
+    private long renewIntervalNanos() {
+        return TimeUnit.SECONDS.toNanos(leaseSeconds) / 3;
+    }
+
+    private static void requireLease(int updated) {
+        if (updated == 0) {
+            throw new LeaseLostException();
+        }
+    }
+
+    private void deliverPage(Job job, List<UserRepository.NotificationRecipient> page) {
+        long firstId = reserveIds(page.size());
+        LocalDateTime sentAt = LocalDateTime.now();
+        Timestamp sentAtTs = Timestamp.valueOf(sentAt);
+        long lastUserId = page.get(page.size() - 1).getId();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Object[]> rows = new ArrayList<>(page.size());
+            for (int i = 0; i < page.size(); i++) {
+                rows.add(new Object[]{firstId + i, page.get(i).getId(), job.title, job.content, job.imageUrl,
+                        job.type, false, sentAtTs});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO notifications " +
+                    "(id, user_id, title, content, image_url, type, is_read, sent_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+            // Conditional on our lease; if it was taken over the rows above roll back with it
+            requireLease(jdbcTemplate.update("UPDATE sent_notifications SET processed_recipients = processed_recipients + ?, " +
+                            "last_user_id = ?, emails_sent = ?, emails_failed = ?, locked_until = ? " +
+                            "WHERE id = ? AND lease_owner = ?",
+                    page.size(), lastUserId, job.emailsSent.get(), job.emailsFailed.get(),
+                    Timestamp.valueOf(LocalDateTime.now().plusSeconds(leaseSeconds)), job.id, job.owner));
+        });
+        job.renewLeaseAt = System.nanoTime() + renewIntervalNanos();
+        job.lastUserId = lastUserId;
+        job.processed += page.size();
+
+        // Side channels only after the rows are committed
+        for (int i = 0; i < page.size(); i++) {
+            renewLeaseIfDue(job);
+            UserRepository.NotificationRecipient recipient = page.get(i);
+            Long userId = recipient.getId();
+            if (Boolean.TRUE.equals(recipient.getDesktopNotifications())
+                    && notificationService.hasSseConnection(userId)) {
+                NotificationDTO dto = new NotificationDTO(firstId + i, job.title, job.content, job.imageUrl,
+                        job.type, false, sentAt);
+                sseExecutor.execute(() -> notificationService.sendSseNotification(userId, dto));
+            }
+            if (NotificationService.wantsEmail(job.type, recipient.getEmailOrderUpdates(),
+                    recipient.getEmailPromotions())) {
+                String email = recipient.getEmail();
+                job.pendingEmails.incrementAndGet();
+                emailExecutor.execute(() -> {
+                    try {
+                        notificationService.sendNotificationEmail(email, job.template);
+                        job.emailsSent.incrementAndGet();
+                    } catch (Exception e) {
+                        job.emailsFailed.incrementAndGet();
+                        logger.warn("Notification {} email to {} failed: {}", job.id, email, e.getMessage());
+                    } finally {
+                        job.pendingEmails.decrementAndGet();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Reserves {@code count} consecutive notification ids. notification_seq is a pooled sequence:
+     * Hibernate has handed out ids below the stored value and will next use the block ending at
+     * the value it reads. Moving the value by one extra allocation block keeps the reserved range
+     * clear of both.
+     */
+    private long reserveIds(int count) {
+        Long first = transactionTemplate.execute(status -> {
+            Long next = jdbcTemplate.queryForObject("SELECT next_val FROM notification_seq FOR UPDATE", Long.class);
+            jdbcTemplate.update("UPDATE notification_seq SET next_val = ?", next + count + ID_ALLOCATION_SIZE);
+            return next;
+        });
+        if (first == null) {
+            throw new IllegalStateException("notification_seq is empty");
+        }
+        return first;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Unfinished jobs keep their lease and are resumed by another instance once it expires
+        jobExecutor.shutdownNow();
+        emailExecutor.shutdownNow();
+        sseExecutor.shutdownNow();
+    }
+
+    private static final class LeaseLostException extends RuntimeException {
+        LeaseLostException() {
+            super(null, null, false, false);
+        }
+    }
+
+    // Per-run state; the notification itself is immutable while it fans out
+    private static final class Job {
+        final Long id;
+        final String owner;
+        final String title;
+        final String content;
+        final String imageUrl;
+        final String type;
+        final List<Long> userIds;
+        final Notification template = new Notification();
+        final AtomicLong pendingEmails = new AtomicLong();
+        final AtomicLong emailsSent;
+        final AtomicLong emailsFailed;
+        long totalRecipients;
+        long lastUserId;
+        long processed;
+        long renewLeaseAt;
+
+        Job(SentNotification sn, String owner) {
+            this.id = sn.getId();
+            this.owner = owner;
+            this.title = sn.getTitle();
+            this.content = sn.getContent();
+            this.imageUrl = sn.getImageUrl();
+            this.type = sn.getType();
+            this.userIds = new ArrayList<>(sn.getUserIds());
+            this.emailsSent = new AtomicLong(sn.getEmailsSent());
+            this.emailsFailed = new AtomicLong(sn.getEmailsFailed());
+            this.totalRecipients = sn.getTotalRecipients();
+            this.lastUserId = sn.getLastUserId();
+            this.processed = sn.getProcessedRecipients();
+            template.setTitle(title);
+            template.setContent(content);
+            template.setImageUrl(imageUrl);
+            template.setType(type);
+        }
+    }
+}
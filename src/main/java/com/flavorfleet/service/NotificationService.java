@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -40,12 +41,17 @@ import java.util.stream.Collectors;
 public class NotificationService {
     private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
     private static final long SSE_TIMEOUT = 30 * 60 * 1000L; // 30 minutes
+    public static final String ORDER_UPDATE_EVENT = "ORDER_UPDATE_NOTIFICATION";
+    // Sends to more users than this (or to everyone) are handed to the background fan-out
+    private static final int INLINE_RECIPIENT_LIMIT = 100;
 
     private final NotificationRepository notificationRepository;
     private final SentNotificationRepository sentNotificationRepository;
     private final UserRepository userRepository;
     private final JavaMailSender mailSender;
     private final UserService userService;
+    private final OutboxService outboxService;
+    private final NotificationFanoutService fanoutService;
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final Map<Long, List<SseEmitter>> userEmitters = new ConcurrentHashMap<>();
 
@@ -53,12 +59,16 @@ public class NotificationService {
                                SentNotificationRepository sentNotificationRepository,
                                UserRepository userRepository,
                                JavaMailSender mailSender,
-                               @Lazy UserService userService) {
+                               @Lazy UserService userService,
+                               OutboxService outboxService,
+                               NotificationFanoutService fanoutService) {
         this.notificationRepository = notificationRepository;
         this.sentNotificationRepository = sentNotificationRepository;
         this.userRepository = userRepository;
         this.mailSender = mailSender;
         this.userService = userService;
+        this.outboxService = outboxService;
+        this.fanoutService = fanoutService;
     }
 
     @Transactional(readOnly = true)
@@ -141,10 +151,7 @@ public class NotificationService {
 
         // If no schedule date or date is in past, send immediately
         if (sn.getScheduleDate() == null || sn.getScheduleDate().isBefore(LocalDateTime.now())) {
-            sendNow(sn);
-            sn.setSentAt(LocalDateTime.now());
-            sn.setStatus("SENT");
-            sentNotificationRepository.save(sn);
+            dispatch(sn);
         } else {
             sn.setStatus("SCHEDULED");
             sentNotificationRepository.save(sn);
@@ -154,15 +161,30 @@ public class NotificationService {
         return toSentDTO(sn);
     }
 
-    private void sendNow(SentNotification sn) {
-        List<User> users;
-        if (sn.getUserIds().isEmpty()) {
-            users = userRepository.findAll();
-            logger.info("Sending notification to ALL users ({} users)", users.size());
-        } else {
-            users = userRepository.findAllById(sn.getUserIds());
-            logger.info("Sending notification to specific users: {}", sn.getUserIds());
+    /**
+     * Sends a due notification: a handful of recipients inline, broadcasts and large lists through
+     * {@link NotificationFanoutService} once the current transaction commits.
+     */
+    private void dispatch(SentNotification sn) {
+        if (sn.getUserIds().isEmpty() || sn.getUserIds().size() > INLINE_RECIPIENT_LIMIT) {
+            sn.setStatus("QUEUED");
+            sentNotificationRepository.save(sn);
+            fanoutService.submit(sn.getId());
+            logger.info("Queued notification {} for background delivery", sn.getId());
+            return;
         }
+        sendNow(sn);
+        sn.setSentAt(LocalDateTime.now());
+        sn.setProcessedRecipients(sn.getUserIds().size());
+        sn.setTotalRecipients(sn.getUserIds().size());
+        sn.setStatus("SENT");
+        sentNotificationRepository.save(sn);
+    }
+
+    // Inline delivery for small recipient lists
+    private void sendNow(SentNotification sn) {
+        List<User> users = userRepository.findAllById(sn.getUserIds());
+        logger.info("Sending notification to specific users: {}", sn.getUserIds());
 
         List<Notification> notifications = new ArrayList<>();
         for (User user : users) {
@@ -182,23 +204,10 @@ public class NotificationService {
             }
 
             // Send email if preferred
-            boolean sendEmail = false;
-            String emailReason = "";
-            if ("order".equals(notification.getType()) && user.isEmailOrderUpdates()) {
-                sendEmail = true;
-                emailReason = "order updates";
-            } else if ("promotion".equals(notification.getType()) && user.isEmailPromotions()) {
-                sendEmail = true;
-                emailReason = "promotions";
-            } else if ("system".equals(notification.getType())) {
-                sendEmail = true; // Always send system alerts
-                emailReason = "system alert";
-            }
-
-            if (sendEmail) {
+            if (wantsEmail(notification.getType(), user.isEmailOrderUpdates(), user.isEmailPromotions())) {
                 try {
-                    sendNotificationEmail(user, notification);
-                    logger.info("Email sent to {} for {} notification", user.getEmail(), emailReason);
+                    sendNotificationEmail(user.getEmail(), notification);
+                    logger.info("Email sent to {} for {} notification", user.getEmail(), notification.getType());
                 } catch (MessagingException e) {
                     logger.error("Failed to send email notification to {}: {}", user.getEmail(), e.getMessage());
                 } catch (Exception e) {
@@ -214,7 +223,17 @@ public class NotificationService {
         logger.info("Created {} notifications for sent notification ID: {}", notifications.size(), sn.getId());
     }
 
-    private void sendNotificationEmail(User user, Notification notification) throws MessagingException {
+    // Order updates and promotions follow the user's preferences; system alerts are always emailed
+    static boolean wantsEmail(String type, Boolean emailOrderUpdates, Boolean emailPromotions) {
+        if ("order".equals(type)) {
+            return Boolean.TRUE.equals(emailOrderUpdates);
+        } else if ("promotion".equals(type)) {
+            return Boolean.TRUE.equals(emailPromotions);
+        }
+        return "system".equals(type);
+    }
+
+    void sendNotificationEmail(String to, Notification notification) throws MessagingException {
         if (mailSender == null) {
             logger.error("JavaMailSender is null! Check mail configuration");
             return;
@@ -231,7 +250,7 @@ public class NotificationService {
 
         MimeMessage message = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-        helper.setTo(user.getEmail());
+        helper.setTo(to);
         helper.setSubject(notification.getTitle());
         helper.setFrom(fromEmail);
 
@@ -327,14 +346,18 @@ public class NotificationService {
         
         try {
             mailSender.send(message);
-            logger.info("Email successfully sent to: {}", user.getEmail());
+            logger.info("Email successfully sent to: {}", to);
         } catch (Exception e) {
-            logger.error("Failed to send email to {}: {}", user.getEmail(), e.getMessage());
+            logger.error("Failed to send email to {}: {}", to, e.getMessage());
             throw e;
         }
     }
 
-    private void sendSseNotification(Long userId, NotificationDTO notification) {
+    boolean hasSseConnection(Long userId) {
+        return userEmitters.containsKey(userId);
+    }
+
+    void sendSseNotification(Long userId, NotificationDTO notification) {
         List<SseEmitter> emitters = userEmitters.get(userId);
         if (emitters != null) {
             List<SseEmitter> deadEmitters = new ArrayList<>();
@@ -376,11 +399,8 @@ public class NotificationService {
         logger.info("Processing scheduled notifications: found {} pending", pending.size());
         
         for (SentNotification sn : pending) {
-            sendNow(sn);
-            sn.setSentAt(now);
-            sn.setStatus("SENT");
-            sentNotificationRepository.save(sn);
-            logger.info("Sent scheduled notification ID: {}", sn.getId());
+            dispatch(sn);
+            logger.info("Dispatched scheduled notification ID: {}", sn.getId());
         }
     }
 
@@ -428,18 +448,59 @@ public class NotificationService {
         }
     }
 
+    /**
+     * Queues the order update notification in the caller's transaction; it is delivered
+     * (database rows, SSE and email) by {@link OrderUpdateNotificationHandler} after commit.
+     */
     public void sendOrderUpdate(Order order, String newStatus) {
+        sendOrderUpdate(order.getId(), order.getUser().getId(), newStatus);
+    }
+
+    public void sendOrderUpdate(Long orderId, Long userId, String newStatus) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("orderId", orderId);
+        event.put("userId", userId);
+        event.put("status", newStatus);
+        outboxService.enqueue(ORDER_UPDATE_EVENT, orderId, event);
+        logger.info("Queued order update notification for order #{}", orderId);
+    }
+
+    /**
+     * Batch form of {@link #sendOrderUpdate} for orders that moved to {@code newStatus} together.
+     * Each order still gets its own outbox event, so one slow or failing delivery is retried alone;
+     * only the insert is batched.
+     *
+     * @param userIdsByOrderId owning user of each order
+     */
+    public void sendOrderUpdates(Map<Long, Long> userIdsByOrderId, String newStatus) {
+        if (userIdsByOrderId.isEmpty()) {
+            return;
+        }
+        Map<Long, Map<String, Object>> events = new LinkedHashMap<>();
+        userIdsByOrderId.forEach((orderId, userId) -> {
+            Map<String, Object> event = new HashMap<>();
+            event.put("orderId", orderId);
+            event.put("userId", userId);
+            event.put("status", newStatus);
+            events.put(orderId, event);
+        });
+        outboxService.enqueueAll(ORDER_UPDATE_EVENT, events);
+        logger.info("Queued order update notifications for {} order(s)", events.size());
+    }
+
+    @Transactional
+    public void deliverOrderUpdate(Long orderId, Long userId, String newStatus) {
         Map<String, Object> payload = new HashMap<>();
         payload.put("title", "Order Status Update");
         payload.put("content", String.format(
             "Your order #%d is now <strong>%s</strong>. " +
             "Thank you for choosing Flavor Fleet!", 
-            order.getId(), newStatus
+            orderId, newStatus
         ));
         payload.put("type", "order");
-        payload.put("userIds", List.of(order.getUser().getId()));
+        payload.put("userIds", List.of(userId));
         
-        logger.info("Sending order update notification for order #{}", order.getId());
+        logger.info("Sending order update notification for order #{}", orderId);
         sendNotification(payload);
     }
 
@@ -466,6 +527,11 @@ public class NotificationService {
         dto.setSentAt(sn.getSentAt());
         dto.setScheduleDate(sn.getScheduleDate());
         dto.setStatus(sn.getStatus());
+        dto.setTotalRecipients(sn.getTotalRecipients());
+        dto.setProcessedRecipients(sn.getProcessedRecipients());
+        dto.setEmailsSent(sn.getEmailsSent());
+        dto.setEmailsFailed(sn.getEmailsFailed());
+        dto.setCompletedAt(sn.getCompletedAt());
         return dto;
     }
 
@@ -0,0 +1,142 @@
+package com.flavorfleet.service;
+
+import com.flavorfleet.entity.OrderStatus;
+import com.flavorfleet.repository.ArchivedOrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps {@code orders} and {@code order_lines} bounded by moving delivered and cancelled orders older
+ * than {@code orders.archive.after-days} into {@code orders_archive} and {@code order_lines_archive}.
+ * Each batch is claimed with {@code FOR UPDATE SKIP LOCKED}, copied and deleted in one transaction,
+ * so instances can run the job side by side and a crash never loses or duplicates an order. An id
+ * that is already archived fails its batch, which stays live, rather than being overwritten or dropped.
+ * <p>
+ * Readers call {@link #getHorizon()} to decide whether a query needs the archive at all: archived
+ * orders are never newer than the horizon, and there is no horizon while the archive is empty.
+ */
+@Service
+public class OrderArchiveService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiveService.class);
+    private static final String ORDER_COLUMNS =
+            "id, user_id, total_price, status_code, version, created_at, address_line1, address_line2, city, pincode";
+    private static final String LINE_COLUMNS = "id, order_id, item_id, name, price, quantity, image";
+
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int afterDays;
+    private final int batchSize;
+    private volatile LocalDateTime latestArchived;
+
+    public OrderArchiveService(ArchivedOrderRepository archivedOrderRepository,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${orders.archive.enabled:true}") boolean enabled,
+                               @Value("${orders.archive.after-days:180}") int afterDays,
+                               @Value("${orders.archive.batch-size:1000}") int batchSize) {
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.afterDays = afterDays;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Latest creation time an archived order can have, or null when the archive is empty. The age
+     * cutoff is included so orders archived by another instance since the last refresh are covered.
+     */
+    public LocalDateTime getHorizon() {
+        LocalDateTime latest = latestArchived;
+        if (latest == null) {
+            return null;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        return latest.isAfter(cutoff) ? latest : cutoff;
+    }
+
+    /**
+     * Whether orders created at or after {@code from} (null: any time) with the given status
+     * (null: any) may be in the archive.
+     */
+    public boolean mayContain(LocalDateTime from, OrderStatus status) {
+        LocalDateTime horizon = getHorizon();
+        return horizon != null && (from == null || !from.isAfter(horizon)) && (status == null || status.isTerminal());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshHorizon() {
+        latestArchived = archivedOrderRepository.findLatestCreatedAt();
+    }
+
+    @Scheduled(initialDelayString = "${orders.archive.interval-ms:3600000}",
+               fixedDelayString = "${orders.archive.interval-ms:3600000}")
+    public void archive() {
+        if (enabled) {
+            long start = System.nanoTime();
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+            long archived = 0;
+            int moved;
+            try {
+                do {
+                    Integer batch = transactionTemplate.execute(status -> moveBatch(cutoff));
+                    moved = batch != null ? batch : 0;
+                    archived += moved;
+                } while (moved == batchSize);
+            } catch (DataAccessException e) {
+                // The failed batch rolled back, so its orders are still live
+                logger.error("Order archiving stopped after {} order(s); batch left in orders", archived, e);
+            }
+            if (archived > 0) {
+                logger.info("Archived {} order(s) created before {} in {} ms", archived, cutoff,
+                        (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+        refreshHorizon();
+    }
+
+    private int moveBatch(LocalDateTime cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM orders WHERE status_code IN (?, ?) AND created_at < ? " +
+                "ORDER BY created_at, id LIMIT ? FOR UPDATE SKIP LOCKED",
+                Long.class, OrderStatus.DELIVERED.getCode(), OrderStatus.CANCELLED.getCode(), cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String in = "(" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")";
+        Object[] args = ids.toArray();
+        // Plain INSERTs: an id already in the archive fails the batch instead of the live row being
+        // skipped here and then deleted below
+        jdbcTemplate.update("INSERT INTO orders_archive (" + ORDER_COLUMNS + ", archived_at) " +
+                "SELECT " + ORDER_COLUMNS + ", NOW() FROM orders WHERE id IN " + in, args);
+        jdbcTemplate.update("INSERT INTO order_lines_archive (" + LINE_COLUMNS + ") " +
+                "SELECT " + LINE_COLUMNS + " FROM order_lines WHERE order_id IN " + in, args);
+        jdbcTemplate.update("DELETE FROM order_lines WHERE order_id IN " + in, args);
+        jdbcTemplate.update("DELETE FROM orders WHERE id IN " + in, args);
+        return ids.size();
+    }
+
+    // Archived orders keep a foreign key to their user, so they go before the user does
+    @Transactional
+    public int deleteArchivedOrdersOf(Long userId) {
+        jdbcTemplate.update("DELETE i FROM order_lines_archive i JOIN orders_archive o ON o.id = i.order_id " +
+                "WHERE o.user_id = ?", userId);
+        return jdbcTemplate.update("DELETE FROM orders_archive WHERE user_id = ?", userId);
+    }
+}
@@ -0,0 +1,70 @@
+package com.flavorfleet.service;
+
+import com.flavorfleet.entity.Order;
+import com.flavorfleet.entity.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when an order is created, changes status or is deleted. Carries the values listeners
+ * need (creation time, total, old and new status) so they never have to reload the order.
+ * Listeners run after the surrounding transaction commits.
+ */
+public class OrderChangedEvent {
+
+    public enum Kind { CREATED, STATUS_CHANGED, DELETED, BULK }
+
+    private final Kind kind;
+    private final Long orderId;
+    private final LocalDateTime createdAt;
+    private final Double totalPrice;
+    private final String previousStatus;
+    private final String status;
+
+    private OrderChangedEvent(Kind kind, Long orderId, LocalDateTime createdAt, Double totalPrice,
+                              String previousStatus, String status) {
+        this.kind = kind;
+        this.orderId = orderId;
+        this.createdAt = createdAt;
+        this.totalPrice = totalPrice;
+        this.previousStatus = previousStatus;
+        this.status = status;
+    }
+
+    public static OrderChangedEvent created(Order order) {
+        return new OrderChangedEvent(Kind.CREATED, order.getId(), order.getCreatedAt(), order.getTotalPrice(),
+                null, name(order.getStatus()));
+    }
+
+    public static OrderChangedEvent statusChanged(Long orderId, LocalDateTime createdAt, Double totalPrice,
+                                                  OrderStatus previousStatus, OrderStatus status) {
+        return new OrderChangedEvent(Kind.STATUS_CHANGED, orderId, createdAt, totalPrice,
+                name(previousStatus), name(status));
+    }
+
+    public static OrderChangedEvent deleted(Order order) {
+        return new OrderChangedEvent(Kind.DELETED, order.getId(), order.getCreatedAt(), order.getTotalPrice(),
+                name(order.getStatus()), null);
+    }
+
+    private static String name(OrderStatus status) {
+        return status != null ? status.name() : null;
+    }
+
+    // Many orders changed at once (e.g. a user's orders were purged); listeners should reload
+    public static OrderChangedEvent bulk() {
+        return new OrderChangedEvent(Kind.BULK, null, null, null, null, null);
+    }
+
+    public Kind getKind() { return kind; }
+    public Long getOrderId() { return orderId; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public Double getTotalPrice() { return totalPrice; }
+    public String getPreviousStatus() { return previousStatus; }
+    public String getStatus() { return status; }
+
+    @Override
+    public String toString() {
+        return "OrderChangedEvent{kind=" + kind + ", orderId=" + orderId + ", status=" + status + "}";
+    }
+}
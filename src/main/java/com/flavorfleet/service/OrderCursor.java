@@ -0,0 +1,40 @@
+package com.flavorfleet.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset position in the newest-first order history: the creation time and id of the last order
+ * on a page, passed to clients as an opaque URL-safe token.
+ */
+final class OrderCursor {
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    OrderCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    LocalDateTime getCreatedAt() { return createdAt; }
+    Long getId() { return id; }
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                (createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static OrderCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new OrderCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
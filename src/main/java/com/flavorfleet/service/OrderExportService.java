@@ -0,0 +1,112 @@
+package com.flavorfleet.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flavorfleet.dto.OrderExportRow;
+import com.flavorfleet.entity.OrderStatus;
+import com.flavorfleet.repository.ArchivedOrderRepository;
+import com.flavorfleet.repository.OrderRepository;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams orders to an output stream as CSV or newline-delimited JSON. Rows are read through a
+ * forward-only database cursor and written one at a time, so memory use does not depend on how
+ * many orders are exported. When the range reaches into the order archive, archived orders are
+ * written first, then the live ones, each in creation order.
+ */
+@Service
+public class OrderExportService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderExportService.class);
+    private static final String[] CSV_HEADER = {
+            "id", "createdAt", "status", "totalPrice", "userEmail", "userName",
+            "addressLine1", "addressLine2", "city", "pincode"};
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderArchiveService archiveService;
+    private final ObjectMapper objectMapper;
+
+    public OrderExportService(OrderRepository orderRepository,
+                              ArchivedOrderRepository archivedOrderRepository,
+                              OrderArchiveService archiveService,
+                              ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.archiveService = archiveService;
+        this.objectMapper = objectMapper;
+    }
+
+    public static boolean isSupportedFormat(String format) {
+        return "csv".equals(format) || "ndjson".equals(format);
+    }
+
+    /**
+     * @param format "csv" or "ndjson"
+     * @param from   first day included (inclusive), or null
+     * @param to     last day included (inclusive), or null
+     * @param statusFilter only orders in this status, or null for all
+     * @return number of orders written
+     */
+    @Transactional(readOnly = true)
+    public long export(OutputStream out, String format, LocalDate from, LocalDate to, OrderStatus statusFilter)
+            throws IOException {
+        long start = System.nanoTime();
+        LocalDateTime fromAt = from != null ? from.atStartOfDay() : null;
+        LocalDateTime toAt = to != null ? to.plusDays(1).atStartOfDay() : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        CSVPrinter printer = "csv".equals(format)
+                ? new CSVPrinter(writer, CSVFormat.DEFAULT.builder().setHeader(CSV_HEADER).build())
+                : null;
+        long rows = 0;
+        // One cursor at a time: MySQL allows no other statement on a connection while a result streams
+        if (archiveService.mayContain(fromAt, statusFilter)) {
+            try (Stream<OrderExportRow> stream = archivedOrderRepository.streamForExport(statusFilter, fromAt, toAt)) {
+                rows += write(stream, writer, printer);
+            }
+        }
+        try (Stream<OrderExportRow> stream = orderRepository.streamForExport(statusFilter, fromAt, toAt)) {
+            rows += write(stream, writer, printer);
+        }
+        writer.flush();
+        logger.info("Exported {} orders as {} in {} ms", rows, format, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    private long write(Stream<OrderExportRow> stream, Writer writer, CSVPrinter printer) throws IOException {
+        long rows = 0;
+        Iterator<OrderExportRow> iterator = stream.iterator();
+        try {
+            while (iterator.hasNext()) {
+                OrderExportRow row = iterator.next();
+                if (printer != null) {
+                    printer.printRecord(row.getId(), row.getCreatedAt(), row.getStatus(), row.getTotalPrice(),
+                            row.getUserEmail(), row.getUserName(), row.getAddressLine1(), row.getAddressLine2(),
+                            row.getCity(), row.getPincode());
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+                rows++;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return rows;
+    }
+}
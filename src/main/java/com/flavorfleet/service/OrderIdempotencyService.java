@@ -0,0 +1,228 @@
+package com.flavorfleet.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flavorfleet.dto.OrderDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Backs the {@code Idempotency-Key} header on order placement. Keys are scoped to the user and
+ * kept in the {@code idempotency_keys} table for {@code orders.idempotency.ttl-hours}; completed
+ * keys are also held in a bounded LRU map so replays during a retry storm never reach the database.
+ * <p>
+ * A key is claimed with {@code INSERT IGNORE} before the order is written (auto-committed, so
+ * concurrent retries see it at once) and completed inside the order transaction. A claim whose
+ * order never committed is released, or taken over once its lease has expired.
+ */
+@Service
+public class OrderIdempotencyService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderIdempotencyService.class);
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final int MAX_CACHED_KEYS = 10_000;
+    private static final int PURGE_BATCH_SIZE = 5_000;
+
+    public enum Outcome { CLAIMED, REPLAY, IN_PROGRESS, MISMATCH }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final long ttlHours;
+    private final long leaseSeconds;
+    private final Map<String, Completed> completed = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Completed> eldest) {
+                    return size() > MAX_CACHED_KEYS;
+                }
+            });
+
+    public OrderIdempotencyService(JdbcTemplate jdbcTemplate,
+                                   ObjectMapper objectMapper,
+                                   @Value("${orders.idempotency.ttl-hours:24}") long ttlHours,
+                                   @Value("${orders.idempotency.lease-seconds:60}") long leaseSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.ttlHours = ttlHours;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    /**
+     * Claims the key for this request, or reports why it cannot be claimed. Must be called outside
+     * the order transaction so the claim is visible to concurrent retries immediately.
+     */
+    public Claim claim(String email, String key, OrderDTO request) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String hash = hash(request);
+        Completed cached = completed.get(cacheKey(email, key));
+        if (cached != null && cached.createdAt.isAfter(LocalDateTime.now().minusHours(ttlHours))) {
+            return cached.requestHash.equals(hash) ? Claim.replay(cached.response) : Claim.of(Outcome.MISMATCH, key, hash);
+        }
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            LocalDateTime now = LocalDateTime.now();
+            int inserted = jdbcTemplate.update(
+                    "INSERT IGNORE INTO idempotency_keys (user_email, idem_key, request_hash, created_at) VALUES (?, ?, ?, ?)",
+                    email, key, hash, now);
+            if (inserted == 1) {
+                return Claim.of(Outcome.CLAIMED, key, hash);
+            }
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT id, request_hash, response_body, created_at FROM idempotency_keys WHERE user_email = ? AND idem_key = ?",
+                    email, key);
+            if (rows.isEmpty()) {
+                continue; // purged or released in between; try to claim again
+            }
+            Map<String, Object> row = rows.get(0);
+            long id = ((Number) row.get("id")).longValue();
+            LocalDateTime createdAt = toLocalDateTime(row.get("created_at"));
+            if (createdAt.isBefore(now.minusHours(ttlHours))) {
+                jdbcTemplate.update("DELETE FROM idempotency_keys WHERE id = ? AND created_at = ?", id, createdAt);
+                continue;
+            }
+            if (!hash.equals(row.get("request_hash"))) {
+                return Claim.of(Outcome.MISMATCH, key, hash);
+            }
+            String body = (String) row.get("response_body");
+            if (body != null) {
+                OrderDTO response = readResponse(body);
+                completed.put(cacheKey(email, key), new Completed(hash, response, createdAt));
+                return Claim.replay(response);
+            }
+            // The first attempt is still running, or died without releasing its claim
+            int takenOver = jdbcTemplate.update(
+                    "UPDATE idempotency_keys SET created_at = ? WHERE id = ? AND response_body IS NULL AND created_at < ?",
+                    now, id, now.minusSeconds(leaseSeconds));
+            if (takenOver == 1) {
+                logger.warn("Took over expired idempotency key claim {} for {}", key, email);
+                return Claim.of(Outcome.CLAIMED, key, hash);
+            }
+            return Claim.of(Outcome.IN_PROGRESS, key, hash);
+        }
+        return Claim.of(Outcome.IN_PROGRESS, key, hash);
+    }
+
+    /**
+     * Stores the response for a claimed key. Runs in the order transaction, so the key completes
+     * if and only if the order commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void complete(String email, Claim claim, OrderDTO response) {
+        if (claim.getOutcome() != Outcome.CLAIMED) {
+            throw new IllegalStateException("Idempotency key " + claim.key + " was not claimed by this request");
+        }
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize order response", e);
+        }
+        int updated = jdbcTemplate.update(
+                "UPDATE idempotency_keys SET order_id = ?, response_body = ?, completed_at = ? "
+                        + "WHERE user_email = ? AND idem_key = ? AND response_body IS NULL",
+                response.getId(), body, LocalDateTime.now(), email, claim.key);
+        if (updated != 1) {
+            throw new IllegalStateException("Idempotency key " + claim.key + " is no longer held by this request");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                completed.put(cacheKey(email, claim.key),
+                        new Completed(claim.requestHash, response, LocalDateTime.now()));
+            }
+        });
+    }
+
+    /** Frees a claim whose order was not created, so the client can retry with the same key. */
+    public void release(String email, Claim claim) {
+        jdbcTemplate.update(
+                "DELETE FROM idempotency_keys WHERE user_email = ? AND idem_key = ? AND response_body IS NULL",
+                email, claim.key);
+    }
+
+    @Scheduled(initialDelayString = "${orders.idempotency.purge-interval-ms:3600000}",
+               fixedDelayString = "${orders.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(ttlHours);
+        long purged = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(
+                    "DELETE FROM idempotency_keys WHERE created_at < ? LIMIT " + PURGE_BATCH_SIZE, cutoff);
+            purged += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+        synchronized (completed) {
+            completed.values().removeIf(entry -> entry.createdAt.isBefore(cutoff));
+        }
+        logger.info("Purged {} expired idempotency keys", purged);
+    }
+
+    private String hash(OrderDTO request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to hash order request", e);
+        }
+    }
+
+    private OrderDTO readResponse(String body) {
+        try {
+            return objectMapper.readValue(body, OrderDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored order response is unreadable", e);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private static String cacheKey(String email, String key) {
+        return email + '\n' + key;
+    }
+
+    private record Completed(String requestHash, OrderDTO response, LocalDateTime createdAt) {}
+
+    public static final class Claim {
+        private final Outcome outcome;
+        private final String key;
+        private final String requestHash;
+        private final OrderDTO response;
+
+        private Claim(Outcome outcome, String key, String requestHash, OrderDTO response) {
+            this.outcome = outcome;
+            this.key = key;
+            this.requestHash = requestHash;
+            this.response = response;
+        }
+
+        static Claim of(Outcome outcome, String key, String requestHash) {
+            return new Claim(outcome, key, requestHash, null);
+        }
+
+        static Claim replay(OrderDTO response) { return new Claim(Outcome.REPLAY, null, null, response); }
+
+        public Outcome getOutcome() { return outcome; }
+        public OrderDTO getResponse() { return response; }
+    }
+}
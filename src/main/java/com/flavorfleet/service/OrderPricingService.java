@@ -0,0 +1,116 @@
+package com.flavorfleet.service;
+
+import com.flavorfleet.dto.CartItemDTO;
+import com.flavorfleet.dto.MenuItemDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Prices checkout lines against the current {@link MenuSnapshot}. Every item id is resolved in the
+ * in-memory snapshot (a binary search, no database access) and line totals are computed in
+ * {@link BigDecimal}. Items that are no longer on the menu, and lines whose client-side price no
+ * longer matches the menu, reject the whole order so the client can refresh its cart.
+ */
+@Service
+public class OrderPricingService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderPricingService.class);
+
+    private final MenuCache menuCache;
+
+    public OrderPricingService(MenuCache menuCache) {
+        this.menuCache = menuCache;
+    }
+
+    public PricedOrder price(List<CartItemDTO> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Order must contain at least one item");
+        }
+        MenuSnapshot snapshot = menuCache.getSnapshot();
+        List<PricedLine> lines = new ArrayList<>(items.size());
+        List<String> stale = null;
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartItemDTO item : items) {
+            if (item.getItemId() == null) {
+                throw new IllegalArgumentException("Item id is required: " + item.getName());
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Item quantity must be positive: " + item.getName());
+            }
+            MenuItemDTO menuItem = snapshot.findItem(item.getItemId());
+            if (menuItem == null || menuItem.getPrice() == null) {
+                throw new IllegalArgumentException("Item is no longer on the menu: "
+                        + (item.getName() != null ? item.getName() : item.getItemId()));
+            }
+            BigDecimal unitPrice = money(menuItem.getPrice());
+            if (item.getPrice() != null && money(item.getPrice()).compareTo(unitPrice) != 0) {
+                if (stale == null) {
+                    stale = new ArrayList<>();
+                }
+                stale.add(menuItem.getName() + " (now " + unitPrice.toPlainString() + ")");
+                continue;
+            }
+            BigDecimal lineTotal = unitPrice.multiply(BigDecimal.valueOf(item.getQuantity()));
+            lines.add(new PricedLine(menuItem.getId(), menuItem.getName(), unitPrice, item.getQuantity(),
+                    menuItem.getImage(), lineTotal));
+            total = total.add(lineTotal);
+        }
+        if (stale != null) {
+            logger.warn("Rejected order with stale prices against menu v{}: {}", snapshot.getVersion(), stale);
+            throw new IllegalArgumentException("Prices have changed for: " + String.join(", ", stale)
+                    + ". Please review your cart and try again.");
+        }
+        return new PricedOrder(lines, total, snapshot.getVersion());
+    }
+
+    private static BigDecimal money(Double amount) {
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    public static final class PricedOrder {
+        private final List<PricedLine> lines;
+        private final BigDecimal total;
+        private final long menuVersion;
+
+        PricedOrder(List<PricedLine> lines, BigDecimal total, long menuVersion) {
+            this.lines = Collections.unmodifiableList(lines);
+            this.total = total;
+            this.menuVersion = menuVersion;
+        }
+
+        public List<PricedLine> getLines() { return lines; }
+        public BigDecimal getTotal() { return total; }
+        public long getMenuVersion() { return menuVersion; }
+    }
+
+    public static final class PricedLine {
+        private final Long itemId;
+        private final String name;
+        private final BigDecimal unitPrice;
+        private final int quantity;
+        private final String image;
+        private final BigDecimal lineTotal;
+
+        PricedLine(Long itemId, String name, BigDecimal unitPrice, int quantity, String image, BigDecimal lineTotal) {
+            this.itemId = itemId;
+            this.name = name;
+            this.unitPrice = unitPrice;
+            this.quantity = quantity;
+            this.image = image;
+            this.lineTotal = lineTotal;
+        }
+
+        public Long getItemId() { return itemId; }
+        public String getName() { return name; }
+        public BigDecimal getUnitPrice() { return unitPrice; }
+        public int getQuantity() { return quantity; }
+        public String getImage() { return image; }
+        public BigDecimal getLineTotal() { return lineTotal; }
+    }
+}
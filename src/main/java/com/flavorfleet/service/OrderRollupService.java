@@ -0,0 +1,222 @@
+package com.flavorfleet.service;
+
+import com.flavorfleet.dto.OrderTrendDTO;
+import com.flavorfleet.dto.OrderTrendPointDTO;
+import com.flavorfleet.entity.OrderRollup;
+import com.flavorfleet.repository.ArchivedOrderRepository;
+import com.flavorfleet.repository.OrderRepository;
+import com.flavorfleet.repository.OrderRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains the hourly and daily {@link OrderRollup} rows and answers trend queries from them.
+ * Days touched by an order change are marked dirty and rebuilt by a background job with set-based
+ * INSERT ... SELECT statements, so trend reads cost a few hundred rollup rows at most.
+ */
+@Service
+public class OrderRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderRollupService.class);
+    private static final String HOUR = "HOUR";
+    private static final String DAY = "DAY";
+    private static final int HOURLY_RETENTION_DAYS = 90;
+    private static final int MAX_HOURLY_RANGE_DAYS = 31;
+    private static final int MAX_DAILY_RANGE_DAYS = 3 * 366;
+
+    private final OrderRollupRepository rollupRepository;
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final TransactionTemplate rollupTransaction;
+    private final Set<LocalDate> dirtyDays = ConcurrentHashMap.newKeySet();
+    private volatile boolean fullRebuildRequested;
+
+    public OrderRollupService(OrderRollupRepository rollupRepository,
+                              OrderRepository orderRepository,
+                              ArchivedOrderRepository archivedOrderRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.rollupTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkBackfill() {
+        if (rollupRepository.count() == 0 && orderRepository.count() > 0) {
+            logger.info("Order rollups are empty; scheduling a full backfill");
+            fullRebuildRequested = true;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.getKind() == OrderChangedEvent.Kind.BULK) {
+            fullRebuildRequested = true;
+        } else {
+            dirtyDays.add(event.getCreatedAt() != null ? event.getCreatedAt().toLocalDate() : LocalDate.now());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${orders.rollup.interval-ms:300000}",
+               fixedDelayString = "${orders.rollup.interval-ms:300000}")
+    public synchronized void refreshRollups() {
+        long start = System.nanoTime();
+        Set<LocalDate> days = new TreeSet<>();
+        if (fullRebuildRequested) {
+            fullRebuildRequested = false;
+            LocalDateTime earliest = orderRepository.findEarliestCreatedAt();
+            LocalDateTime earliestArchived = archivedOrderRepository.findEarliestCreatedAt();
+            if (earliestArchived != null && (earliest == null || earliestArchived.isBefore(earliest))) {
+                earliest = earliestArchived;
+            }
+            if (earliest != null) {
+                for (LocalDate day = earliest.toLocalDate(); !day.isAfter(LocalDate.now()); day = day.plusDays(1)) {
+                    days.add(day);
+                }
+            }
+        }
+        for (LocalDate day : new ArrayList<>(dirtyDays)) {
+            dirtyDays.remove(day);
+            days.add(day);
+        }
+        // Today is always refreshed so rows written outside the application still show up
+        days.add(LocalDate.now());
+
+        int rebuilt = 0;
+        for (LocalDate day : days) {
+            try {
+                rollupTransaction.executeWithoutResult(status -> rebuildDay(day));
+                rebuilt++;
+            } catch (RuntimeException e) {
+                logger.error("Failed to rebuild order rollups for {}: {}", day, e.getMessage(), e);
+                dirtyDays.add(day);
+            }
+        }
+        rollupTransaction.executeWithoutResult(status -> rollupRepository.deleteHourlyBefore(
+                LocalDate.now().minusDays(HOURLY_RETENTION_DAYS).atStartOfDay()));
+        logger.info("Rebuilt order rollups for {} day(s) in {} ms", rebuilt, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void rebuildDay(LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = from.plusDays(1);
+        rollupRepository.deleteRange(from, to);
+        rollupRepository.insertDaily(from, to);
+        if (!day.isBefore(LocalDate.now().minusDays(HOURLY_RETENTION_DAYS))) {
+            rollupRepository.insertHourly(from, to);
+        }
+    }
+
+    /**
+     * Revenue change of the current window against the window of the same length just before it,
+     * in percent. "7d" compares 7-day windows; anything else compares 30-day windows.
+     */
+    @Transactional(readOnly = true)
+    public double getRevenueTrendPercent(String timeRange) {
+        int days = "7d".equals(timeRange) ? 7 : 30;
+        LocalDateTime tomorrow = LocalDate.now().plusDays(1).atStartOfDay();
+        LocalDateTime currentStart = tomorrow.minusDays(days);
+        LocalDateTime previousStart = currentStart.minusDays(days);
+        double current = rollupRepository.sumDailyRevenue(currentStart, tomorrow);
+        double previous = rollupRepository.sumDailyRevenue(previousStart, currentStart);
+        if (previous <= 0) {
+            return 0.0;
+        }
+        return BigDecimal.valueOf((current - previous) * 100 / previous)
+                .setScale(1, RoundingMode.HALF_UP)
+                .doubleValue();
+    }
+
+    /**
+     * Order figures per bucket between two dates (both inclusive), optionally for a single city.
+     *
+     * @param granularity "HOUR" (ranges up to 31 days, last 90 days only) or "DAY"
+     */
+    @Transactional(readOnly = true)
+    public OrderTrendDTO getTrend(LocalDate fromDate, LocalDate toDate, String granularity, String city) {
+        if (fromDate == null || toDate == null) {
+            throw new IllegalArgumentException("Both from and to dates are required");
+        }
+        if (toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("The to date must not be before the from date");
+        }
+        String bucket = granularity != null ? granularity.toUpperCase() : DAY;
+        if (!HOUR.equals(bucket) && !DAY.equals(bucket)) {
+            throw new IllegalArgumentException("Granularity must be 'HOUR' or 'DAY'");
+        }
+        long rangeDays = ChronoUnit.DAYS.between(fromDate, toDate) + 1;
+        int maxDays = HOUR.equals(bucket) ? MAX_HOURLY_RANGE_DAYS : MAX_DAILY_RANGE_DAYS;
+        if (rangeDays > maxDays) {
+            throw new IllegalArgumentException(bucket + " trends are limited to " + maxDays + " days");
+        }
+
+        LocalDateTime from = fromDate.atStartOfDay();
+        LocalDateTime to = toDate.plusDays(1).atStartOfDay();
+        Map<LocalDateTime, long[]> countsByBucket = new TreeMap<>();
+        Map<LocalDateTime, Double> revenueByBucket = new HashMap<>();
+        Map<LocalDateTime, Map<String, Long>> statusesByBucket = new HashMap<>();
+        Map<String, Double> revenueByCity = new TreeMap<>();
+        for (OrderRollup row : rollupRepository.findRange(bucket, from, to)) {
+            if (city != null && !city.equalsIgnoreCase(row.getCity())) {
+                continue;
+            }
+            countsByBucket.computeIfAbsent(row.getBucketStart(), k -> new long[1])[0] += row.getOrderCount();
+            revenueByBucket.merge(row.getBucketStart(), row.getRevenue(), Double::sum);
+            statusesByBucket.computeIfAbsent(row.getBucketStart(), k -> new HashMap<>())
+                    .merge(row.getStatus(), row.getOrderCount(), Long::sum);
+            revenueByCity.merge(row.getCity(), row.getRevenue(), Double::sum);
+        }
+
+        List<OrderTrendPointDTO> points = new ArrayList<>(countsByBucket.size());
+        long totalOrders = 0;
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        for (Map.Entry<LocalDateTime, long[]> entry : countsByBucket.entrySet()) {
+            long orders = entry.getValue()[0];
+            BigDecimal revenue = money(revenueByBucket.get(entry.getKey()));
+            BigDecimal avg = orders > 0
+                    ? revenue.divide(BigDecimal.valueOf(orders), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+            points.add(new OrderTrendPointDTO(entry.getKey(), orders, revenue, avg, statusesByBucket.get(entry.getKey())));
+            totalOrders += orders;
+            totalRevenue = totalRevenue.add(revenue);
+        }
+        Map<String, BigDecimal> cityRevenue = new TreeMap<>();
+        revenueByCity.forEach((name, revenue) -> cityRevenue.put(name, money(revenue)));
+
+        OrderTrendDTO trend = new OrderTrendDTO();
+        trend.setGranularity(bucket);
+        trend.setFrom(from);
+        trend.setTo(to);
+        trend.setCity(city);
+        trend.setTotalOrders(totalOrders);
+        trend.setTotalRevenue(totalRevenue);
+        trend.setPoints(points);
+        trend.setRevenueByCity(cityRevenue);
+        return trend;
+    }
+
+    private static BigDecimal money(Double amount) {
+        return BigDecimal.valueOf(amount != null ? amount : 0.0).setScale(2, RoundingMode.HALF_UP);
+    }
+}
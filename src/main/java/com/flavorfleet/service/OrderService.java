@@ -2,41 +2,66 @@ package com.flavorfleet.service;
 
 import com.flavorfleet.dto.CartItemDTO;
 import com.flavorfleet.dto.OrderDTO;
-import com.flavorfleet.entity.CartItem;
+import com.flavorfleet.dto.OrderPageDTO;
+import com.flavorfleet.entity.ArchivedOrderLine;
+import com.flavorfleet.entity.ArchivedOrder;
 import com.flavorfleet.entity.Order;
+import com.flavorfleet.entity.OrderLine;
+import com.flavorfleet.entity.OrderStatus;
 import com.flavorfleet.entity.User;
+import com.flavorfleet.repository.ArchivedOrderRepository;
 import com.flavorfleet.repository.OrderRepository;
 import com.flavorfleet.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final LocalDateTime STATS_EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
 
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
     private final UserService userService;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderIdempotencyService idempotencyService;
+    private final OrderPricingService pricingService;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderArchiveService archiveService;
 
     public OrderService(OrderRepository orderRepository,
                         UserRepository userRepository,
                         UserService userService,
-                        NotificationService notificationService) {
+                        NotificationService notificationService,
+                        ApplicationEventPublisher eventPublisher,
+                        OrderIdempotencyService idempotencyService,
+                        OrderPricingService pricingService,
+                        ArchivedOrderRepository archivedOrderRepository,
+                        OrderArchiveService archiveService) {
         this.orderRepository = orderRepository;
         this.userRepository = userRepository;
         this.userService = userService;
         this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
+        this.idempotencyService = idempotencyService;
+        this.pricingService = pricingService;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.archiveService = archiveService;
     }
 
     @Transactional(readOnly = true)
@@ -57,6 +82,24 @@ public class OrderService {
         return orderRepository.findAll();
     }
 
+    // Archived counterparts of getOrders and getAllOrders; no query at all while the archive is empty
+    @Transactional(readOnly = true)
+    public List<OrderDTO> getArchivedOrders(String email) {
+        User user = userService.findByEmail(email);
+        if (user == null || archiveService.getHorizon() == null) {
+            return List.of();
+        }
+        return toArchivedDTOs(archivedOrderRepository.findByUserId(user.getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderDTO> getAllArchivedOrders() {
+        if (archiveService.getHorizon() == null) {
+            return List.of();
+        }
+        return toArchivedDTOs(archivedOrderRepository.findAll());
+    }
+
     @Transactional(readOnly = true)
     public List<Order> getOrdersByUserId(Long userId) {
         logger.info("Fetching orders for user ID: {}", userId);
@@ -66,11 +109,12 @@ public class OrderService {
     @Transactional
     public void deleteOrder(Long orderId) {
         logger.info("Deleting order with ID: {}", orderId);
-        if (!orderRepository.existsById(orderId)) {
+        Order order = orderRepository.findById(orderId).orElseThrow(() -> {
             logger.warn("Order not found for deletion: {}", orderId);
-            throw new IllegalArgumentException("Order not found with ID: " + orderId);
-        }
-        orderRepository.deleteById(orderId);
+            return new IllegalArgumentException("Order not found with ID: " + orderId);
+        });
+        orderRepository.delete(order);
+        eventPublisher.publishEvent(OrderChangedEvent.deleted(order));
     }
 
     @Transactional(readOnly = true)
@@ -82,6 +126,14 @@ public class OrderService {
 
     @Transactional
     public Order saveOrder(OrderDTO orderDTO, String email) {
+        return saveOrder(orderDTO, email, null);
+    }
+
+    /**
+     * @param idempotencyClaim claimed {@code Idempotency-Key} to complete together with the order, or null
+     */
+    @Transactional
+    public Order saveOrder(OrderDTO orderDTO, String email, OrderIdempotencyService.Claim idempotencyClaim) {
         // 1. Validate input
         if (orderDTO == null) {
             throw new IllegalArgumentException("Order data cannot be null");
@@ -93,25 +145,15 @@ public class OrderService {
             throw new IllegalArgumentException("Order must contain at least one item");
         }
 
-        // 2. Validate prices and quantities
-        BigDecimal calculatedTotal = BigDecimal.ZERO;
-        for (CartItemDTO item : items) {
-            if (item.getQuantity() <= 0) {
-                throw new IllegalArgumentException("Item quantity must be positive: " + item.getName());
-            }
-            if (item.getPrice() == null || item.getPrice() <= 0) {
-                throw new IllegalArgumentException("Item price must be positive: " + item.getName());
-            }
-            BigDecimal itemTotal = BigDecimal.valueOf(item.getPrice()).multiply(BigDecimal.valueOf(item.getQuantity()));
-            calculatedTotal = calculatedTotal.add(itemTotal);
-        }
+        // 2. Price every line against the live menu (rejects unknown items and stale prices)
+        OrderPricingService.PricedOrder priced = pricingService.price(items);
+        BigDecimal calculatedTotal = priced.getTotal();
 
-        // 3. Prevent price tampering - recalculate total from items
+        // 3. The client total is informational only; the server total is what gets stored
         if (orderDTO.getTotalPrice() == null || 
             BigDecimal.valueOf(orderDTO.getTotalPrice()).compareTo(calculatedTotal) != 0) {
             logger.warn("Price mismatch detected for email: {}. Client sent: {}, calculated: {}", 
                         email, orderDTO.getTotalPrice(), calculatedTotal);
-            orderDTO.setTotalPrice(calculatedTotal.doubleValue()); // Trust server calculation
         }
 
         // 4. Find user
@@ -129,28 +171,27 @@ public class OrderService {
         order.setAddressLine2(orderDTO.getAddressLine2());
         order.setCity(orderDTO.getCity());
         order.setPincode(orderDTO.getPincode());
-        order.setStatus("PENDING"); // Default status
+        order.setStatus(OrderStatus.PENDING); // Default status
         order.setCreatedAt(LocalDateTime.now());
 
-        // 6. Add items (server-trusted data)
-        items.forEach(itemDTO -> {
-            CartItem cartItem = new CartItem(
-                    itemDTO.getItemId(),
-                    itemDTO.getName(),
-                    itemDTO.getPrice(),
-                    itemDTO.getQuantity(),
-                    itemDTO.getImage(),
-                    user,
-                    order
-            );
-            order.addItem(cartItem);
-        });
+        // 6. Add items (server-trusted data from the menu)
+        priced.getLines().forEach(line -> order.addItem(new OrderLine(
+                line.getItemId(),
+                line.getName(),
+                line.getUnitPrice().doubleValue(),
+                line.getQuantity(),
+                line.getImage()
+        )));
 
         // 7. Save and notify
         Order savedOrder = orderRepository.saveAndFlush(order);
         logger.info("Order saved successfully with ID: {} for email: {}", savedOrder.getId(), email);
+        eventPublisher.publishEvent(OrderChangedEvent.created(savedOrder));
+        if (idempotencyClaim != null) {
+            idempotencyService.complete(email, idempotencyClaim, toDTO(savedOrder));
+        }
 
-        notificationService.sendOrderUpdate(savedOrder, "PENDING");
+        notificationService.sendOrderUpdate(savedOrder, OrderStatus.PENDING.name());
 
         // 8. Clear cart after successful order
         userService.clearCart(email);
@@ -158,47 +199,155 @@ public class OrderService {
         return savedOrder;
     }
 
+    /**
+     * One page of orders, newest first, with optional filters.
+     *
+     * @param userId restricts the page to one customer's orders when not null
+     * @param from   first day included (inclusive), or null
+     * @param to     last day included (inclusive), or null
+     * @param cursor {@code nextCursor} of the previous page, or null for the first page
+     */
     @Transactional(readOnly = true)
-    public List<Order> getFilteredOrdersForStats(String timeRange) {
-        logger.info("Fetching filtered orders for stats with timeRange: {}", timeRange);
-        List<Order> allOrders = orderRepository.findAll();
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime startDate;
+    public OrderPageDTO getOrderPage(Long userId, String status, String city, LocalDate from, LocalDate to,
+                                     String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("The to date must not be before the from date");
+        }
+        LocalDateTime cursorAt = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            OrderCursor position = OrderCursor.decode(cursor);
+            cursorAt = position.getCreatedAt();
+            cursorId = position.getId();
+        }
+        logger.info("Fetching order page for user: {}, status: {}, city: {}, limit: {}", userId, status, city, limit);
+
+        // One extra row tells us whether another page exists without a count query
+        OrderStatus statusFilter = blankToNull(status) != null ? OrderStatus.parse(status) : null;
+        LocalDateTime fromAt = from != null ? from.atStartOfDay() : null;
+        LocalDateTime toAt = to != null ? to.plusDays(1).atStartOfDay() : null;
+        List<Order> rows = orderRepository.findPage(userId, statusFilter, blankToNull(city), fromAt, toAt,
+                cursorAt, cursorId, PageRequest.of(0, limit + 1));
+        List<OrderDTO> orders = new ArrayList<>(rows.size());
+        for (Order order : rows) {
+            orders.add(toDTO(order));
+        }
+
+        // The archive only matters if it can hold rows newer than the last candidate row found so far
+        LocalDateTime horizon = archiveService.getHorizon();
+        if (horizon != null && archiveService.mayContain(fromAt, statusFilter)
+                && (rows.size() <= limit || !rows.get(limit).getCreatedAt().isAfter(horizon))) {
+            orders.addAll(toArchivedDTOs(archivedOrderRepository.findPage(userId, statusFilter, blankToNull(city),
+                    fromAt, toAt, cursorAt, cursorId, PageRequest.of(0, limit + 1))));
+            orders.sort(Comparator.comparing(OrderDTO::getCreatedAt).thenComparing(OrderDTO::getId).reversed());
+        }
+        boolean hasMore = orders.size() > limit;
+        if (hasMore) {
+            orders = new ArrayList<>(orders.subList(0, limit));
+        }
 
-        if ("7d".equals(timeRange)) {
-            startDate = now.minusDays(7);
-        } else if ("30d".equals(timeRange)) {
-            startDate = now.minusDays(30);
-        } else { // "all" or invalid
-            return allOrders;
+        String nextCursor = null;
+        if (hasMore) {
+            OrderDTO last = orders.get(orders.size() - 1);
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getId()).encode();
         }
+        return new OrderPageDTO(orders, nextCursor, hasMore);
+    }
 
-        return allOrders.stream()
-                .filter(order -> order.getCreatedAt() != null && !order.getCreatedAt().isBefore(startDate))
-                .collect(Collectors.toList());
+    public OrderDTO toDTO(Order order) {
+        List<CartItemDTO> items = new ArrayList<>(order.getItems().size());
+        for (OrderLine item : order.getItems()) {
+            items.add(new CartItemDTO(item.getId(), item.getItemId(), item.getName(), item.getPrice(),
+                    item.getQuantity(), item.getImage()));
+        }
+        return new OrderDTO(
+                order.getId(),
+                order.getUser().getEmail(),
+                order.getUser().getName(),
+                order.getTotalPrice(),
+                order.getStatus().name(),
+                order.getCreatedAt(),
+                items,
+                order.getAddressLine1(),
+                order.getAddressLine2(),
+                order.getCity(),
+                order.getPincode()
+        );
     }
 
-    @Transactional(readOnly = true)
-    public BigDecimal getTotalRevenueForOrders(List<Order> orders) {
-        return orders.stream()
-                .map(Order::getTotalPrice)
-                .filter(Objects::nonNull)
-                .map(BigDecimal::valueOf)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public OrderDTO toDTO(ArchivedOrder order) {
+        List<CartItemDTO> items = new ArrayList<>(order.getItems().size());
+        for (ArchivedOrderLine item : order.getItems()) {
+            items.add(new CartItemDTO(item.getId(), item.getItemId(), item.getName(), item.getPrice(),
+                    item.getQuantity(), item.getImage()));
+        }
+        return new OrderDTO(
+                order.getId(),
+                order.getUser().getEmail(),
+                order.getUser().getName(),
+                order.getTotalPrice(),
+                order.getStatus().name(),
+                order.getCreatedAt(),
+                items,
+                order.getAddressLine1(),
+                order.getAddressLine2(),
+                order.getCity(),
+                order.getPincode()
+        );
+    }
+
+    private List<OrderDTO> toArchivedDTOs(List<ArchivedOrder> orders) {
+        List<OrderDTO> dtos = new ArrayList<>(orders.size());
+        for (ArchivedOrder order : orders) {
+            dtos.add(toDTO(order));
+        }
+        return dtos;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
     }
 
     @Transactional(readOnly = true)
-    public Map<String, Long> getOrderStatusDistribution(List<Order> orders) {
-        return orders.stream()
-                .collect(Collectors.groupingBy(
-                        order -> order.getStatus() != null ? order.getStatus() : "UNKNOWN",
-                        Collectors.counting()
-                ));
+    public OrderRepository.OrderTotals getOrderTotals(String timeRange) {
+        logger.info("Aggregating order totals for timeRange: {}", timeRange);
+        LocalDateTime start = statsWindowStart(timeRange);
+        OrderRepository.OrderTotals totals = orderRepository.sumOrdersSince(start);
+        if (!archiveService.mayContain(start, null)) {
+            return totals;
+        }
+        OrderRepository.OrderTotals archived = archivedOrderRepository.sumOrdersSince(start);
+        long orderCount = totals.getOrderCount() + archived.getOrderCount();
+        double revenue = (totals.getRevenue() != null ? totals.getRevenue() : 0.0)
+                + (archived.getRevenue() != null ? archived.getRevenue() : 0.0);
+        return new OrderRepository.OrderTotals() {
+            @Override
+            public long getOrderCount() { return orderCount; }
+            @Override
+            public Double getRevenue() { return revenue; }
+        };
     }
 
     @Transactional(readOnly = true)
     public Map<String, Long> countOrdersByStatus(String timeRange) {
-        List<Order> filteredOrders = getFilteredOrdersForStats(timeRange);
-        return getOrderStatusDistribution(filteredOrders);
+        LocalDateTime start = statsWindowStart(timeRange);
+        List<OrderRepository.StatusCount> rows = new ArrayList<>(orderRepository.countByStatusSince(start));
+        if (archiveService.mayContain(start, null)) {
+            rows.addAll(archivedOrderRepository.countByStatusSince(start));
+        }
+        Map<String, Long> counts = new HashMap<>();
+        for (OrderRepository.StatusCount row : rows) {
+            counts.merge(row.getStatus() != null ? row.getStatus().name() : "UNKNOWN", row.getOrderCount(), Long::sum);
+        }
+        return counts;
+    }
+
+    // Same calendar-day windows as the in-memory counters; anything else ("all") covers every order
+    private LocalDateTime statsWindowStart(String timeRange) {
+        LocalDate start = OrderStatsCounters.windowStart(timeRange);
+        return start != null ? start.atStartOfDay() : STATS_EPOCH;
     }
-}
\ No newline at end of file
+}
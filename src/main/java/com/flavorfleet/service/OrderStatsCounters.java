@@ -0,0 +1,299 @@
+package com.flavorfleet.service;
+
+import com.flavorfleet.entity.OrderStatus;
+import com.flavorfleet.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory order totals for the admin dashboard: all-time order count, revenue and status
+ * histogram, plus the same figures per calendar day for the last {@value #RETAINED_DAYS} days.
+ * Counters are striped {@link LongAdder}s updated after each order change commits, so reads cost
+ * at most one pass over the retained day buckets. Revenue is kept in paise to stay exact.
+ * <p>
+ * Only this instance's commits are applied as they happen. Orders placed or changed through other
+ * instances (or outside the application) show up at the next rebuild, so with several instances
+ * the figures can lag by up to {@code orders.stats.reconcile-interval-ms} (10 minutes by default).
+ * <p>
+ * The counters are seeded from the database at startup and rebuilt on that schedule. A rebuild reads the database in one
+ * REPEATABLE READ snapshot and replays on top of it exactly the changes committed after that
+ * snapshot: order transactions hold {@code commitLock} (shared) from just before they commit until
+ * their change is applied, and the rebuild takes it exclusively while it opens the snapshot and
+ * while it swaps the counters in.
+ */
+@Component
+public class OrderStatsCounters {
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatsCounters.class);
+    private static final int RETAINED_DAYS = 31;
+
+    private final OrderRepository orderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final ReadWriteLock commitLock = new ReentrantReadWriteLock();
+    private volatile Counters current;
+    // Changes committed after a reconcile's snapshot are applied to the replacement as well
+    private volatile Counters rebuilding;
+
+    public OrderStatsCounters(OrderRepository orderRepository,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        // Also runs from after-completion callbacks, so it needs its own transaction
+        this.snapshotTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    /**
+     * First day of a dashboard window: "7d" and "30d" are the last 7/30 calendar days including
+     * today, the only windows the day buckets can answer. The SQL fallback uses the same start.
+     * Returns null for anything else (all time).
+     */
+    public static LocalDate windowStart(String timeRange) {
+        if ("7d".equals(timeRange)) {
+            return LocalDate.now().minusDays(6);
+        } else if ("30d".equals(timeRange)) {
+            return LocalDate.now().minusDays(29);
+        }
+        return null;
+    }
+
+    /**
+     * @param timeRange "7d" or "30d" for the window described at {@link #windowStart}; anything
+     *                  else for all time
+     */
+    public Totals getTotals(String timeRange) {
+        Counters counters = current;
+        if (counters == null) {
+            throw new IllegalStateException("Order counters are not seeded yet");
+        }
+        LocalDate start = windowStart(timeRange);
+        if (start == null) {
+            return counters.all.toTotals();
+        }
+        long orders = 0;
+        long revenuePaise = 0;
+        Map<String, Long> statusCounts = new HashMap<>();
+        for (LocalDate day = start; !day.isAfter(LocalDate.now()); day = day.plusDays(1)) {
+            Bucket bucket = counters.days.get(day);
+            if (bucket != null) {
+                orders += bucket.orders.sum();
+                revenuePaise += bucket.revenuePaise.sum();
+                bucket.statuses.forEach((status, count) -> statusCounts.merge(status, count.sum(), Long::sum));
+            }
+        }
+        statusCounts.values().removeIf(count -> count == 0);
+        return new Totals(orders, revenuePaise, statusCounts);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${orders.stats.reconcile-interval-ms:600000}",
+               fixedDelayString = "${orders.stats.reconcile-interval-ms:600000}")
+    public synchronized void reconcile() {
+        long start = System.nanoTime();
+        Counters next = new Counters();
+        try {
+            snapshotTransaction.executeWithoutResult(status -> {
+                commitLock.writeLock().lock();
+                try {
+                    // The first read fixes the snapshot; every change committed later is replayed onto next
+                    jdbcTemplate.queryForList("SELECT id FROM orders LIMIT 1", Long.class);
+                    rebuilding = next;
+                } finally {
+                    commitLock.writeLock().unlock();
+                }
+                LocalDate oldestRetained = LocalDate.now().minusDays(RETAINED_DAYS - 1);
+                for (OrderRepository.DailyStatusTotals row : orderRepository.sumByDayAndStatus()) {
+                    LocalDate day = LocalDate.parse(row.getDay());
+                    long revenuePaise = toPaise(row.getRevenue());
+                    String statusName = row.getStatusCode() != null
+                            ? OrderStatus.fromCode(row.getStatusCode()).name() : null;
+                    next.all.add(statusName, row.getOrderCount(), revenuePaise);
+                    if (!day.isBefore(oldestRetained)) {
+                        next.bucket(day).add(statusName, row.getOrderCount(), revenuePaise);
+                    }
+                }
+            });
+            commitLock.writeLock().lock();
+            try {
+                current = next;
+            } finally {
+                rebuilding = null;
+                commitLock.writeLock().unlock();
+            }
+        } finally {
+            rebuilding = null;
+        }
+        logger.info("Order counters reconciled: {} orders in {} ms",
+                next.all.orders.sum(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Runs just before the order's transaction commits and applies the change once it has. Events
+     * published outside a transaction describe changes that are already committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (event.getKind() == OrderChangedEvent.Kind.BULK) {
+                reconcile();
+            } else {
+                applyCommitted(event);
+            }
+            return;
+        }
+        commitLock.readLock().lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED && event.getKind() != OrderChangedEvent.Kind.BULK) {
+                        apply(current, event);
+                        apply(rebuilding, event);
+                    }
+                } finally {
+                    commitLock.readLock().unlock();
+                }
+                if (status == STATUS_COMMITTED && event.getKind() == OrderChangedEvent.Kind.BULK) {
+                    reconcile();
+                }
+            }
+        });
+    }
+
+    private void applyCommitted(OrderChangedEvent event) {
+        commitLock.readLock().lock();
+        try {
+            apply(current, event);
+            apply(rebuilding, event);
+        } finally {
+            commitLock.readLock().unlock();
+        }
+    }
+
+    private static void apply(Counters counters, OrderChangedEvent event) {
+        if (counters == null) {
+            return;
+        }
+        LocalDateTime createdAt = event.getCreatedAt() != null ? event.getCreatedAt() : LocalDateTime.now();
+        Bucket day = counters.days.get(createdAt.toLocalDate());
+        long revenuePaise = toPaise(event.getTotalPrice());
+        switch (event.getKind()) {
+            case CREATED -> {
+                counters.all.add(event.getStatus(), 1, revenuePaise);
+                counters.bucket(createdAt.toLocalDate()).add(event.getStatus(), 1, revenuePaise);
+            }
+            case STATUS_CHANGED -> {
+                counters.all.move(event.getPreviousStatus(), event.getStatus());
+                if (day != null) {
+                    day.move(event.getPreviousStatus(), event.getStatus());
+                }
+            }
+            case DELETED -> {
+                counters.all.add(event.getPreviousStatus(), -1, -revenuePaise);
+                if (day != null) {
+                    day.add(event.getPreviousStatus(), -1, -revenuePaise);
+                }
+            }
+            default -> { }
+        }
+    }
+
+    private static long toPaise(Double amount) {
+        return amount != null ? Math.round(amount * 100) : 0L;
+    }
+
+    private static String statusKey(String status) {
+        return status != null ? status : "UNKNOWN";
+    }
+
+    private static final class Counters {
+        private final Bucket all = new Bucket();
+        private final Map<LocalDate, Bucket> days = new ConcurrentHashMap<>();
+
+        private Bucket bucket(LocalDate day) {
+            Bucket bucket = days.computeIfAbsent(day, d -> new Bucket());
+            if (days.size() > RETAINED_DAYS + 1) {
+                LocalDate oldestRetained = LocalDate.now().minusDays(RETAINED_DAYS - 1);
+                days.keySet().removeIf(d -> d.isBefore(oldestRetained));
+            }
+            return bucket;
+        }
+    }
+
+    private static final class Bucket {
+        private final LongAdder orders = new LongAdder();
+        private final LongAdder revenuePaise = new LongAdder();
+        private final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        private void add(String status, long count, long paise) {
+            orders.add(count);
+            revenuePaise.add(paise);
+            statuses.computeIfAbsent(statusKey(status), s -> new LongAdder()).add(count);
+        }
+
+        private void move(String from, String to) {
+            statuses.computeIfAbsent(statusKey(from), s -> new LongAdder()).decrement();
+            statuses.computeIfAbsent(statusKey(to), s -> new LongAdder()).increment();
+        }
+
+        private Totals toTotals() {
+            Map<String, Long> statusCounts = new HashMap<>();
+            statuses.forEach((status, count) -> {
+                long value = count.sum();
+                if (value != 0) {
+                    statusCounts.put(status, value);
+                }
+            });
+            return new Totals(orders.sum(), revenuePaise.sum(), statusCounts);
+        }
+    }
+
+    public static final class Totals {
+        private final long orderCount;
+        private final long revenuePaise;
+        private final Map<String, Long> statusCounts;
+
+        Totals(long orderCount, long revenuePaise, Map<String, Long> statusCounts) {
+            this.orderCount = orderCount;
+            this.revenuePaise = revenuePaise;
+            this.statusCounts = statusCounts;
+        }
+
+        public long getOrderCount() { return orderCount; }
+        public BigDecimal getRevenue() { return BigDecimal.valueOf(revenuePaise, 2); }
+        public Map<String, Long> getStatusCounts() { return statusCounts; }
+    }
+}
@@ -0,0 +1,38 @@
+package com.flavorfleet.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flavorfleet.entity.OutboxEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Delivers the customer notifications queued by {@link NotificationService#sendOrderUpdate} and
+ * {@link NotificationService#sendOrderUpdates}, one order per event.
+ */
+@Component
+public class OrderUpdateNotificationHandler implements OutboxEventHandler {
+    private final NotificationService notificationService;
+    private final ObjectMapper objectMapper;
+
+    public OrderUpdateNotificationHandler(NotificationService notificationService, ObjectMapper objectMapper) {
+        this.notificationService = notificationService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Collection<String> getEventTypes() {
+        return List.of(NotificationService.ORDER_UPDATE_EVENT);
+    }
+
+    @Override
+    public void handle(OutboxEvent event) throws Exception {
+        JsonNode payload = objectMapper.readTree(event.getPayload());
+        notificationService.deliverOrderUpdate(
+                payload.get("orderId").asLong(),
+                payload.get("userId").asLong(),
+                payload.get("status").asText());
+    }
+}
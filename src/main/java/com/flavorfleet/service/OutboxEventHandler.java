@@ -0,0 +1,17 @@
+package com.flavorfleet.service;
+
+import com.flavorfleet.entity.OutboxEvent;
+
+import java.util.Collection;
+
+/**
+ * Performs the side effects for one or more outbox event types. Handlers run outside the
+ * transaction that recorded the event and may be called more than once for the same event (after
+ * a failure or a crash), so they should tolerate redelivery.
+ */
+public interface OutboxEventHandler {
+
+    Collection<String> getEventTypes();
+
+    void handle(OutboxEvent event) throws Exception;
+}
@@ -0,0 +1,352 @@
+package com.flavorfleet.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flavorfleet.entity.OutboxEvent;
+import com.flavorfleet.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transactional outbox. {@link #enqueue} stores an {@link OutboxEvent} in the caller's transaction,
+ * and the event is later dispatched to the {@link OutboxEventHandler} for its type on a bounded
+ * worker pool. Two paths feed the pool:
+ * <ul>
+ *   <li>after the enqueuing transaction commits, the event is dispatched directly (low latency,
+ *       switched off with {@code outbox.dispatch-after-commit=false});</li>
+ *   <li>a relay polls the table, claims due events in batches with {@code FOR UPDATE SKIP LOCKED}
+ *       (so several instances can relay side by side) and marks the delivered ones done in one
+ *       statement. Instances that should only write events set {@code outbox.relay.enabled=false}.</li>
+ * </ul>
+ * The relay runs on its own thread rather than the shared Spring scheduler, and only claims as many
+ * events as the worker queue can take, so slow handlers hold back the relay and nothing else.
+ * A claimed event carries a lease; events whose worker died are released when the lease expires.
+ * Failed events are retried with exponential backoff.
+ */
+@Service
+public class OutboxService {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxService.class);
+    private static final int MAX_ATTEMPTS = 10;
+    private static final int DONE_RETENTION_DAYS = 7;
+
+    private final OutboxEventRepository outboxRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final List<OutboxEventHandler> handlerBeans;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService relayScheduler;
+    private final boolean dispatchAfterCommit;
+    private final boolean relayEnabled;
+    private final int batchSize;
+    private final long leaseSeconds;
+    private final long relayIntervalMs;
+    private volatile Map<String, OutboxEventHandler> handlers;
+
+    public OutboxService(OutboxEventRepository outboxRepository,
+                         JdbcTemplate jdbcTemplate,
+                         ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager,
+                         @Lazy List<OutboxEventHandler> handlerBeans,
+                         @Value("${outbox.workers:4}") int workers,
+                         @Value("${outbox.queue-capacity:1000}") int queueCapacity,
+                         @Value("${outbox.dispatch-after-commit:true}") boolean dispatchAfterCommit,
+                         @Value("${outbox.relay.enabled:true}") boolean relayEnabled,
+                         @Value("${outbox.relay.batch-size:100}") int batchSize,
+                         @Value("${outbox.relay.interval-ms:1000}") long relayIntervalMs,
+                         @Value("${outbox.lease-seconds:300}") long leaseSeconds) {
+        this.outboxRepository = outboxRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.handlerBeans = handlerBeans;
+        this.dispatchAfterCommit = dispatchAfterCommit;
+        this.relayEnabled = relayEnabled;
+        this.batchSize = batchSize;
+        this.leaseSeconds = leaseSeconds;
+        this.relayIntervalMs = relayIntervalMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "outbox-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.relayScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void startRelay() {
+        if (relayEnabled) {
+            relayScheduler.scheduleWithFixedDelay(this::relay, relayIntervalMs, relayIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Records an event in the current transaction (or a new one).
+     *
+     * @param payload serialized to JSON for the handler
+     */
+    @Transactional
+    public OutboxEvent enqueue(String eventType, Long aggregateId, Object payload) {
+        OutboxEvent saved = outboxRepository.save(newEvent(eventType, aggregateId, payload, LocalDateTime.now()));
+        dispatchAfterCommit(List.of(saved.getId()));
+        return saved;
+    }
+
+    /**
+     * Records one event per aggregate in the current transaction (or a new one). The rows are
+     * written as one JDBC batch, but each is claimed, retried and marked done on its own.
+     *
+     * @param payloadsByAggregateId payload of each event, serialized to JSON for the handler
+     */
+    @Transactional
+    public List<OutboxEvent> enqueueAll(String eventType, Map<Long, ?> payloadsByAggregateId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = new ArrayList<>(payloadsByAggregateId.size());
+        payloadsByAggregateId.forEach((aggregateId, payload) ->
+                events.add(newEvent(eventType, aggregateId, payload, now)));
+        List<OutboxEvent> saved = outboxRepository.saveAll(events);
+        dispatchAfterCommit(saved.stream().map(OutboxEvent::getId).toList());
+        return saved;
+    }
+
+    private OutboxEvent newEvent(String eventType, Long aggregateId, Object payload, LocalDateTime now) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(eventType);
+        event.setAggregateId(aggregateId);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload for " + eventType + " is not serializable", e);
+        }
+        event.setStatus("PENDING");
+        event.setAvailableAt(now);
+        event.setCreatedAt(now);
+        return event;
+    }
+
+    private void dispatchAfterCommit(List<Long> ids) {
+        if (dispatchAfterCommit && !ids.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ids.forEach(OutboxService.this::dispatch);
+                }
+            });
+        }
+    }
+
+    void relay() {
+        try {
+            Integer released = transactionTemplate.execute(status ->
+                    outboxRepository.releaseExpiredLeases(LocalDateTime.now()));
+            if (released != null && released > 0) {
+                logger.warn("Released {} outbox event(s) whose lease expired", released);
+            }
+            long start = System.nanoTime();
+            int relayed = 0;
+            int limit;
+            List<Long> ids;
+            do {
+                // Never claim more than the workers can queue; the rest waits for the next run
+                limit = Math.min(batchSize, executor.getQueue().remainingCapacity());
+                if (limit == 0) {
+                    break;
+                }
+                ids = claimBatch(limit);
+                if (!ids.isEmpty()) {
+                    relayed += deliverBatch(outboxRepository.findAllById(ids));
+                }
+            } while (ids.size() == limit);
+            if (relayed > 0) {
+                logger.info("Outbox relay dispatched {} event(s) in {} ms", relayed, (System.nanoTime() - start) / 1_000_000);
+            }
+        } catch (RuntimeException e) {
+            // Keep the relay scheduled; the next run retries
+            logger.error("Outbox relay run failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelay = 3_600_000, initialDelay = 3_600_000)
+    public void purgeDone() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxRepository.deleteDoneBefore(LocalDateTime.now().minusDays(DONE_RETENTION_DAYS)));
+        logger.info("Purged {} delivered outbox event(s)", deleted);
+    }
+
+    private List<Long> claimBatch(int limit) {
+        List<Long> ids = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> batch = jdbcTemplate.queryForList(
+                    "SELECT id FROM outbox_events WHERE status = 'PENDING' AND available_at <= ? "
+                            + "ORDER BY available_at, id LIMIT ? FOR UPDATE SKIP LOCKED",
+                    Long.class, now, limit);
+            if (batch.isEmpty()) {
+                return batch;
+            }
+            List<Object> args = new ArrayList<>(batch.size() + 1);
+            args.add(now.plusSeconds(leaseSeconds));
+            args.addAll(batch);
+            jdbcTemplate.update("UPDATE outbox_events SET status = 'PROCESSING', attempts = attempts + 1, locked_until = ? "
+                    + "WHERE id IN (" + String.join(",", Collections.nCopies(batch.size(), "?")) + ")", args.toArray());
+            return batch;
+        });
+        return ids != null ? ids : List.of();
+    }
+
+    /**
+     * Hands a claimed batch to the workers and returns without waiting for it. Once every event of
+     * the batch has run, the delivered ones are marked done in one statement on the last worker.
+     */
+    private int deliverBatch(List<OutboxEvent> events) {
+        List<CompletableFuture<Boolean>> results = new ArrayList<>(events.size());
+        int submitted = 0;
+        for (OutboxEvent event : events) {
+            CompletableFuture<Boolean> result;
+            try {
+                result = CompletableFuture.supplyAsync(() -> handle(event), executor);
+                submitted++;
+            } catch (RejectedExecutionException e) {
+                // Queue filled up by after-commit dispatches since the claim: hand the event back
+                release(event);
+                result = CompletableFuture.completedFuture(false);
+            }
+            results.add(result);
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+            List<Long> done = new ArrayList<>(events.size());
+            for (int i = 0; i < events.size(); i++) {
+                if (results.get(i).exceptionally(e -> false).join()) {
+                    done.add(events.get(i).getId());
+                }
+            }
+            if (!done.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> outboxRepository.markDone(done, LocalDateTime.now()));
+            }
+        });
+        return submitted;
+    }
+
+    private void release(OutboxEvent event) {
+        jdbcTemplate.update("UPDATE outbox_events SET status = 'PENDING', attempts = attempts - 1, locked_until = NULL "
+                + "WHERE id = ? AND status = 'PROCESSING' AND locked_until = ?", event.getId(), event.getLockedUntil());
+    }
+
+    private void dispatch(Long id) {
+        try {
+            executor.execute(() -> {
+                Integer claimed = transactionTemplate.execute(status ->
+                        outboxRepository.claim(id, LocalDateTime.now().plusSeconds(leaseSeconds)));
+                if (claimed == null || claimed == 0) {
+                    return; // already claimed by the relay
+                }
+                outboxRepository.findById(id).ifPresent(event -> {
+                    if (handle(event)) {
+                        transactionTemplate.executeWithoutResult(status ->
+                                outboxRepository.markDone(List.of(id), LocalDateTime.now()));
+                    }
+                });
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Outbox worker queue is full; event {} is left to the relay", id);
+        }
+    }
+
+    /**
+     * Runs the handler for a claimed event. Returns true when it succeeded; failures are recorded
+     * on the event (rescheduled, or FAILED after {@value #MAX_ATTEMPTS} attempts).
+     */
+    private boolean handle(OutboxEvent event) {
+        OutboxEventHandler handler = handlers().get(event.getEventType());
+        if (handler == null) {
+            logger.error("No outbox handler for event type {} (event {})", event.getEventType(), event.getId());
+            fail(event, "FAILED", null, "No handler for event type " + event.getEventType());
+            return false;
+        }
+        try {
+            handler.handle(event);
+            return true;
+        } catch (Exception e) {
+            if (event.getAttempts() >= MAX_ATTEMPTS) {
+                logger.error("Outbox event {} ({}) failed permanently after {} attempts: {}",
+                        event.getId(), event.getEventType(), event.getAttempts(), e.getMessage(), e);
+                fail(event, "FAILED", null, e.getMessage());
+            } else {
+                long delaySeconds = Math.min(5L << Math.min(event.getAttempts(), 10), 3600);
+                logger.warn("Outbox event {} ({}) failed on attempt {}, retrying in {}s: {}",
+                        event.getId(), event.getEventType(), event.getAttempts(), delaySeconds, e.getMessage());
+                fail(event, "PENDING", LocalDateTime.now().plusSeconds(delaySeconds), e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Records a failed attempt, but only while this worker still holds the lease it claimed the
+     * event with; once the lease has expired and the event was re-claimed, the new holder owns it.
+     */
+    private void fail(OutboxEvent event, String status, LocalDateTime retryAt, String error) {
+        String lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+        LocalDateTime processedAt = "FAILED".equals(status) ? LocalDateTime.now() : null;
+        int updated = jdbcTemplate.update("UPDATE outbox_events SET status = ?, available_at = COALESCE(?, available_at), "
+                        + "locked_until = NULL, last_error = ?, processed_at = ? "
+                        + "WHERE id = ? AND status = 'PROCESSING' AND locked_until = ?",
+                status, retryAt, lastError, processedAt, event.getId(), event.getLockedUntil());
+        if (updated == 0) {
+            logger.warn("Outbox event {} lost its lease before the failure could be recorded", event.getId());
+        }
+    }
+
+    private Map<String, OutboxEventHandler> handlers() {
+        Map<String, OutboxEventHandler> byType = handlers;
+        if (byType == null) {
+            byType = new HashMap<>();
+            for (OutboxEventHandler handler : handlerBeans) {
+                for (String eventType : handler.getEventTypes()) {
+                    byType.put(eventType, handler);
+                }
+            }
+            handlers = byType;
+        }
+        return byType;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Unclaimed events stay PENDING; claimed ones are released when their lease expires
+        relayScheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,57 @@
+package com.flavorfleet.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flavorfleet.entity.OutboxEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Side effects of partner application changes queued by {@link PartnerService}: the admin
+ * notification for a new application and the approval/rejection emails to the applicant.
+ */
+@Component
+public class PartnerEventHandler implements OutboxEventHandler {
+    public static final String APPLICATION_RECEIVED = "PARTNER_APPLICATION_RECEIVED";
+    public static final String APPROVED_EMAIL = "PARTNER_APPROVED_EMAIL";
+    public static final String REJECTED_EMAIL = "PARTNER_REJECTED_EMAIL";
+
+    private final PartnerService partnerService;
+    private final NotificationService notificationService;
+    private final ObjectMapper objectMapper;
+
+    public PartnerEventHandler(PartnerService partnerService,
+                               NotificationService notificationService,
+                               ObjectMapper objectMapper) {
+        this.partnerService = partnerService;
+        this.notificationService = notificationService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Collection<String> getEventTypes() {
+        return List.of(APPLICATION_RECEIVED, APPROVED_EMAIL, REJECTED_EMAIL);
+    }
+
+    @Override
+    public void handle(OutboxEvent event) throws Exception {
+        if (APPLICATION_RECEIVED.equals(event.getEventType())) {
+            Map<String, Object> payload = objectMapper.readValue(event.getPayload(), new TypeReference<>() {});
+            notificationService.sendNotification(payload);
+            return;
+        }
+        JsonNode payload = objectMapper.readTree(event.getPayload());
+        String email = payload.get("email").asText();
+        String ownerName = payload.path("ownerName").asText(null);
+        String restaurantName = payload.path("restaurantName").asText(null);
+        if (APPROVED_EMAIL.equals(event.getEventType())) {
+            partnerService.sendApprovalEmail(email, ownerName, restaurantName);
+        } else {
+            partnerService.sendRejectionEmail(email, ownerName, restaurantName, payload.path("reason").asText(null));
+        }
+    }
+}
@@ -32,6 +32,7 @@ public class PartnerService {
     private final JavaMailSender mailSender;
     private final NotificationService notificationService;
     private final RestaurantService restaurantService; // Required for creating restaurant on approval
+    private final OutboxService outboxService;
 
     @Value("${spring.mail.from}")
     private String fromEmail;
@@ -42,13 +43,15 @@ public class PartnerService {
             UserRepository userRepository,
             JavaMailSender mailSender,
             NotificationService notificationService,
-            RestaurantService restaurantService) {
+            RestaurantService restaurantService,
+            OutboxService outboxService) {
         this.repository = repository;
         this.userService = userService;
         this.userRepository = userRepository;
         this.mailSender = mailSender;
         this.notificationService = notificationService;
         this.restaurantService = restaurantService;
+        this.outboxService = outboxService;
     }
 
     @Transactional
@@ -63,12 +66,12 @@ public class PartnerService {
         PartnerApplication app = toEntity(dto);
         PartnerApplication saved = repository.save(app);
 
-        // Notify admin via system notification
+        // Notify admin via system notification (sent from the outbox once this commits)
         Map<String, Object> payload = new HashMap<>();
         payload.put("title", "New Partner Application");
         payload.put("content", "New restaurant application from " + dto.getRestaurantName() + " (" + dto.getEmail() + ")");
         payload.put("type", "system");
-        notificationService.sendNotification(payload);
+        outboxService.enqueue(PartnerEventHandler.APPLICATION_RECEIVED, saved.getId(), payload);
 
         logger.info("Partner application created successfully with ID: {}", saved.getId());
         return toDTO(saved);
@@ -111,8 +114,8 @@ public class PartnerService {
             app.setUpdatedAt(LocalDateTime.now());
             repository.save(app);
 
-            // Step 4: Send success email
-            sendApprovalEmail(app);
+            // Step 4: Queue success email (sent from the outbox once this commits)
+            outboxService.enqueue(PartnerEventHandler.APPROVED_EMAIL, app.getId(), emailPayload(app, null));
 
             logger.info("Successfully approved application ID: {} for restaurant: {}", id, app.getRestaurantName());
         } catch (Exception e) {
@@ -136,7 +139,8 @@ public class PartnerService {
         app.setUpdatedAt(LocalDateTime.now());
         repository.save(app);
 
-        sendRejectionEmail(app, reason != null && !reason.trim().isEmpty() ? reason : "No reason provided");
+        outboxService.enqueue(PartnerEventHandler.REJECTED_EMAIL, app.getId(),
+                emailPayload(app, reason != null && !reason.trim().isEmpty() ? reason : "No reason provided"));
 
         logger.info("Successfully rejected application ID: {}", id);
     }
@@ -162,6 +166,15 @@ public class PartnerService {
         return dto;
     }
 
+    private static Map<String, Object> emailPayload(PartnerApplication app, String reason) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("email", app.getEmail());
+        payload.put("ownerName", app.getOwnerName());
+        payload.put("restaurantName", app.getRestaurantName());
+        payload.put("reason", reason);
+        return payload;
+    }
+
     private PartnerApplication toEntity(PartnerApplicationDTO dto) {
         PartnerApplication app = new PartnerApplication();
         app.setRestaurantName(dto.getRestaurantName());
@@ -180,11 +193,12 @@ public class PartnerService {
     // Professional Email Templates
     // ────────────────────────────────────────────────
 
-    private void sendApprovalEmail(PartnerApplication app) {
+    // Delivered from the outbox; failures propagate so the event is retried
+    void sendApprovalEmail(String email, String ownerName, String restaurantName) throws MessagingException {
         try {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            helper.setTo(app.getEmail());
+            helper.setTo(email);
             helper.setSubject("Flavor Fleet - Your Partner Application is Approved!");
             helper.setFrom(fromEmail);
 
@@ -232,21 +246,22 @@ public class PartnerService {
                     </div>
                 </body>
                 </html>
-                """, app.getOwnerName(), app.getRestaurantName());
+                """, ownerName, restaurantName);
 
             helper.setText(htmlContent, true);
             mailSender.send(message);
-            logger.info("Approval email sent successfully to: {}", app.getEmail());
+            logger.info("Approval email sent successfully to: {}", email);
         } catch (MessagingException e) {
-            logger.error("Failed to send approval email to {}: {}", app.getEmail(), e.getMessage(), e);
+            logger.error("Failed to send approval email to {}: {}", email, e.getMessage(), e);
+            throw e;
         }
     }
 
-    private void sendRejectionEmail(PartnerApplication app, String reason) {
+    void sendRejectionEmail(String email, String ownerName, String restaurantName, String reason) throws MessagingException {
         try {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            helper.setTo(app.getEmail());
+            helper.setTo(email);
             helper.setSubject("Flavor Fleet - Update on Your Partner Application");
             helper.setFrom(fromEmail);
 
@@ -291,13 +306,14 @@ public class PartnerService {
                     </div>
                 </body>
                 </html>
-                """, app.getOwnerName(), app.getRestaurantName(), reason);
+                """, ownerName, restaurantName, reason);
 
             helper.setText(htmlContent, true);
             mailSender.send(message);
-            logger.info("Rejection email sent successfully to: {}", app.getEmail());
+            logger.info("Rejection email sent successfully to: {}", email);
         } catch (MessagingException e) {
-            logger.error("Failed to send rejection email to {}: {}", app.getEmail(), e.getMessage(), e);
+            logger.error("Failed to send rejection email to {}: {}", email, e.getMessage(), e);
+            throw e;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.flavorfleet.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flavorfleet.entity.OutboxEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends the account emails queued by {@link UserService}. The restaurant owner credentials email is
+ * deliberately not routed through here: it carries a temporary password, which must not be stored.
+ */
+@Component
+public class UserEmailHandler implements OutboxEventHandler {
+    public static final String WELCOME_EMAIL = "USER_WELCOME_EMAIL";
+    public static final String DEACTIVATION_EMAIL = "USER_DEACTIVATION_EMAIL";
+
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+
+    public UserEmailHandler(UserService userService, ObjectMapper objectMapper) {
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+    }
+
+    static Map<String, Object> payload(String email, String name) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("email", email);
+        payload.put("name", name);
+        return payload;
+    }
+
+    @Override
+    public Collection<String> getEventTypes() {
+        return List.of(WELCOME_EMAIL, DEACTIVATION_EMAIL);
+    }
+
+    @Override
+    public void handle(OutboxEvent event) throws Exception {
+        JsonNode payload = objectMapper.readTree(event.getPayload());
+        String email = payload.get("email").asText();
+        String name = payload.path("name").asText(null);
+        if (WELCOME_EMAIL.equals(event.getEventType())) {
+            userService.sendWelcomeEmail(email, name);
+        } else {
+            userService.sendDeactivationEmail(email, name);
+        }
+    }
+}
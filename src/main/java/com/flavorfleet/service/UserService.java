@@ -2,10 +2,12 @@ package com.flavorfleet.service;
 
 import com.flavorfleet.dto.AdminStatsDTO;
 import com.flavorfleet.dto.AdminUserDTO;
+import com.flavorfleet.dto.OrderStatusBatchResultDTO;
 import com.flavorfleet.entity.Address;
 import com.flavorfleet.entity.CartItem;
 import com.flavorfleet.entity.FavoriteItem;
 import com.flavorfleet.entity.Order;
+import com.flavorfleet.entity.OrderStatus;
 import com.flavorfleet.entity.RefreshToken;
 import com.flavorfleet.entity.User;
 import com.flavorfleet.repository.AddressRepository;
@@ -21,6 +23,7 @@ import jakarta.mail.internet.MimeMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
@@ -46,6 +49,7 @@ public class UserService implements UserDetailsService {
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
     private static final int OTP_EXPIRY_MINUTES = 10;
+    private static final int MAX_STATUS_BATCH = 500;
     private static final Map<String, Long> OTP_TIMESTAMP = new ConcurrentHashMap<>();
     private static final Map<String, String> otpStore = new ConcurrentHashMap<>();
     private static final Map<String, User> pendingRegistrations = new ConcurrentHashMap<>();
@@ -62,6 +66,11 @@ public class UserService implements UserDetailsService {
     private final NotificationService notificationService;
     private final OrderService orderService;
     private final MenuService menuService; // NEW: Added MenuService
+    private final OrderStatsCounters orderStatsCounters;
+    private final OrderRollupService orderRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
+    private final OrderArchiveService orderArchiveService;
 
     @Value("${spring.mail.from}")
     private String fromEmail;
@@ -77,7 +86,12 @@ public class UserService implements UserDetailsService {
                        JavaMailSender mailSender,
                        @Lazy NotificationService notificationService,
                        @Lazy OrderService orderService,
-                       MenuService menuService) { // NEW: Added MenuService to constructor
+                       MenuService menuService, // NEW: Added MenuService to constructor
+                       OrderStatsCounters orderStatsCounters,
+                       OrderRollupService orderRollupService,
+                       ApplicationEventPublisher eventPublisher,
+                       OutboxService outboxService,
+                       OrderArchiveService orderArchiveService) {
         this.userRepository = userRepository;
         this.addressRepository = addressRepository;
         this.cartItemRepository = cartItemRepository;
@@ -90,6 +104,11 @@ public class UserService implements UserDetailsService {
         this.notificationService = notificationService;
         this.orderService = orderService;
         this.menuService = menuService; // NEW: Initialize MenuService
+        this.orderStatsCounters = orderStatsCounters;
+        this.orderRollupService = orderRollupService;
+        this.eventPublisher = eventPublisher;
+        this.outboxService = outboxService;
+        this.orderArchiveService = orderArchiveService;
     }
 
     // Updated: Auto-activate ALL admin accounts on startup (permanent for admins)
@@ -257,18 +276,108 @@ public class UserService implements UserDetailsService {
     @Transactional
     public boolean updateOrderStatus(Long id, String status) {
         logger.info("Updating order status for order ID: {} to status: {}", id, status);
-        Order order = orderRepository.findById(id).orElse(null);
-        if (order == null) {
+        OrderStatus target = OrderStatus.parse(status);
+        OrderStatus previousStatus = transitionStatus(id, target);
+        List<OrderRepository.StatusSnapshot> rows = orderRepository.findStatusSnapshots(List.of(id));
+        if (rows.isEmpty()) {
             logger.warn("Order not found with ID: {}", id);
             return false;
         }
-        order.setStatus(status);
-        orderRepository.save(order);
-        notificationService.sendOrderUpdate(order, status);
+        OrderRepository.StatusSnapshot order = rows.get(0);
+        if (previousStatus == null && order.getStatus() == null) {
+            // Inserted by the previous release and not backfilled yet
+            orderRepository.backfillStatusCodes(List.of(id));
+            previousStatus = transitionStatus(id, target);
+            order = orderRepository.findStatusSnapshots(List.of(id)).get(0);
+        }
+        if (previousStatus == null) {
+            if (order.getStatus() == target) {
+                logger.info("Order {} is already {}", id, target);
+                return true;
+            }
+            throw new IllegalStateException("Cannot move order #" + id + " from " + order.getStatus() + " to " + target);
+        }
+        eventPublisher.publishEvent(OrderChangedEvent.statusChanged(
+                id, order.getCreatedAt(), order.getTotalPrice(), previousStatus, target));
+        notificationService.sendOrderUpdate(id, order.getUserId(), target.name());
         logger.info("Order status updated successfully for ID: {}", id);
         return true;
     }
 
+    // Conditional UPDATE from each status that may precede the target (only CANCELLED has more than
+    // one), so the usual case is a single statement and a concurrent change makes it a no-op
+    private OrderStatus transitionStatus(Long id, OrderStatus target) {
+        for (OrderStatus from : target.previousStatuses()) {
+            if (orderRepository.transitionStatus(id, from, target) > 0) {
+                return from;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Moves many orders to {@code status} at once. The orders are locked and read up front, grouped
+     * by their current status and moved with one UPDATE per group, and their notifications are
+     * queued in one batch. Orders that cannot make the transition are reported, not failed.
+     */
+    @Transactional
+    public OrderStatusBatchResultDTO updateOrderStatuses(List<Long> orderIds, String status) {
+        if (orderIds == null || orderIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one order id is required");
+        }
+        Set<Long> ids = new LinkedHashSet<>(orderIds);
+        ids.remove(null);
+        if (ids.size() > MAX_STATUS_BATCH) {
+            throw new IllegalArgumentException("At most " + MAX_STATUS_BATCH + " orders can be updated at once");
+        }
+        OrderStatus target = OrderStatus.parse(status);
+        logger.info("Updating {} order(s) to status {}", ids.size(), target);
+        OrderStatusBatchResultDTO result = new OrderStatusBatchResultDTO(target.name());
+
+        Map<Long, OrderRepository.StatusSnapshot> snapshots = new HashMap<>();
+        Map<OrderStatus, List<Long>> byStatus = new EnumMap<>(OrderStatus.class);
+        // Held until commit, so no order can change status between this read and the UPDATEs below
+        orderRepository.lockByIds(ids);
+        // Rows the previous release inserted may not have a status_code yet
+        orderRepository.backfillStatusCodes(ids);
+        for (OrderRepository.StatusSnapshot snapshot : orderRepository.findStatusSnapshots(ids)) {
+            snapshots.put(snapshot.getId(), snapshot);
+            if (snapshot.getStatus() == target) {
+                result.getUnchanged().add(snapshot.getId());
+            } else if (snapshot.getStatus().canTransitionTo(target)) {
+                byStatus.computeIfAbsent(snapshot.getStatus(), s -> new ArrayList<>()).add(snapshot.getId());
+            } else {
+                result.addRejection(snapshot.getId(), snapshot.getStatus().name());
+            }
+        }
+        for (Long id : ids) {
+            if (!snapshots.containsKey(id)) {
+                result.getNotFound().add(id);
+            }
+        }
+
+        Map<Long, Long> userIdsByOrderId = new LinkedHashMap<>();
+        for (Map.Entry<OrderStatus, List<Long>> group : byStatus.entrySet()) {
+            OrderStatus from = group.getKey();
+            List<Long> moved = group.getValue();
+            if (orderRepository.transitionStatuses(moved, from, target) != moved.size()) {
+                throw new IllegalStateException("Orders in " + from + " changed while locked; nothing was updated");
+            }
+            for (Long id : moved) {
+                OrderRepository.StatusSnapshot snapshot = snapshots.get(id);
+                eventPublisher.publishEvent(OrderChangedEvent.statusChanged(
+                        id, snapshot.getCreatedAt(), snapshot.getTotalPrice(), from, target));
+                userIdsByOrderId.put(id, snapshot.getUserId());
+                result.getUpdated().add(id);
+            }
+        }
+        notificationService.sendOrderUpdates(userIdsByOrderId, target.name());
+        logger.info("Batch status update to {}: {} updated, {} unchanged, {} rejected, {} not found", target,
+                result.getUpdated().size(), result.getUnchanged().size(), result.getRejected().size(),
+                result.getNotFound().size());
+        return result;
+    }
+
     @Transactional
     public boolean deleteUser(Long id) {
         logger.info("Attempting to delete user with ID: {}", id);
@@ -281,6 +390,8 @@ public class UserService implements UserDetailsService {
             User user = userRepository.findById(id).get();
             // Delete associated data
             orderRepository.deleteByUserId(id);
+            orderArchiveService.deleteArchivedOrdersOf(id);
+            eventPublisher.publishEvent(OrderChangedEvent.bulk());
             logger.debug("Deleted orders for user ID: {}", id);
             cartItemRepository.deleteByUserId(id);
             logger.debug("Deleted cart items for user ID: {}", id);
@@ -392,7 +503,8 @@ public class UserService implements UserDetailsService {
         User savedUser = userRepository.save(user);
         userRepository.flush();
        
-        sendWelcomeEmail(savedUser.getEmail(), savedUser.getName());
+        outboxService.enqueue(UserEmailHandler.WELCOME_EMAIL, savedUser.getId(),
+                UserEmailHandler.payload(savedUser.getEmail(), savedUser.getName()));
        
         otpStore.remove(email);
         OTP_TIMESTAMP.remove(email);
@@ -402,13 +514,10 @@ public class UserService implements UserDetailsService {
         return savedUser;
     }
 
-    private void sendWelcomeEmail(String email, String name) {
-        try {
-            sendEmail(email, name, null, "Welcome to Flavor Fleet - Let's Embark Together", "welcome");
-            logger.info("Welcome email sent successfully to: {}", email);
-        } catch (MessagingException e) {
-            logger.error("Failed to send welcome email to {}: {}", email, e.getMessage(), e);
-        }
+    // Delivered from the outbox; failures propagate so the event is retried
+    void sendWelcomeEmail(String email, String name) throws MessagingException {
+        sendEmail(email, name, null, "Welcome to Flavor Fleet - Let's Embark Together", "welcome");
+        logger.info("Welcome email sent successfully to: {}", email);
     }
 
     @Transactional
@@ -599,7 +708,7 @@ public class UserService implements UserDetailsService {
     public List<CartItem> getCartItems(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
-        List<CartItem> items = cartItemRepository.findByUserAndOrderIsNull(user);
+        List<CartItem> items = cartItemRepository.findByUser(user);
         logger.info("Fetched {} cart items for email: {}", items.size(), email);
         return items;
     }
@@ -610,7 +719,7 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
         cartItem.setUser(user);
        
-        CartItem existingItem = cartItemRepository.findByUserAndItemIdAndOrderIsNull(user, cartItem.getItemId());
+        CartItem existingItem = cartItemRepository.findByUserAndItemId(user, cartItem.getItemId());
         if (existingItem != null) {
             existingItem.setQuantity(existingItem.getQuantity() + cartItem.getQuantity());
             CartItem savedItem = cartItemRepository.save(existingItem);
@@ -660,9 +769,8 @@ public class UserService implements UserDetailsService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
        
-        List<CartItem> cartItems = cartItemRepository.findByUserAndOrderIsNull(user);
-        cartItemRepository.deleteAll(cartItems);
-        logger.info("Cleared cart for email: {}", email);
+        int removed = cartItemRepository.deleteCartOf(user);
+        logger.info("Cleared {} cart items for email: {}", removed, email);
     }
 
     @Transactional(readOnly = true)
@@ -743,27 +851,31 @@ public class UserService implements UserDetailsService {
             newUsers = totalUsers;
         }
        
-        // Order stats (use OrderService for filtered orders)
-        List<Order> filteredOrders = orderService.getFilteredOrdersForStats(timeRange);
-        long totalOrders = filteredOrders.size();
-        BigDecimal totalRevenue = filteredOrders.stream()
-                .map(Order::getTotalPrice)
-                .filter(Objects::nonNull)
-                .map(BigDecimal::valueOf)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Order stats come from the in-memory counters; SQL aggregates only until they are seeded
+        long totalOrders;
+        BigDecimal totalRevenue;
+        Map<String, Long> orderStatusCount;
+        if (orderStatsCounters.isReady()) {
+            OrderStatsCounters.Totals totals = orderStatsCounters.getTotals(timeRange);
+            totalOrders = totals.getOrderCount();
+            totalRevenue = totals.getRevenue();
+            orderStatusCount = totals.getStatusCounts();
+        } else {
+            OrderRepository.OrderTotals totals = orderService.getOrderTotals(timeRange);
+            totalOrders = totals.getOrderCount();
+            totalRevenue = BigDecimal.valueOf(totals.getRevenue() != null ? totals.getRevenue() : 0.0)
+                    .setScale(2, RoundingMode.HALF_UP);
+            orderStatusCount = orderService.countOrdersByStatus(timeRange);
+        }
         BigDecimal avgOrderValue = totalOrders > 0 ?
                 totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
        
-        // Order status count
-        Map<String, Long> orderStatusCount = filteredOrders.stream()
-                .collect(Collectors.groupingBy(Order::getStatus, Collectors.counting()));
-       
         // FIXED: Get menu stats from MenuService
         long totalMenuItems = menuService.getAllMenuItems().size();
         long totalCategories = menuService.getAllCategories().size();
        
-        // Mock trend (replace with real calculation later)
-        double revenueTrendPercent = 12.5; // Positive 12.5%
+        // Period-over-period revenue change from the daily rollups
+        double revenueTrendPercent = orderRollupService.getRevenueTrendPercent(timeRange);
        
         AdminStatsDTO stats = new AdminStatsDTO(
                 totalUsers, activeUsers, inactiveUsers, adminUsers, newUsers,
@@ -911,15 +1023,16 @@ public class UserService implements UserDetailsService {
         user.setActive(false);
         userRepository.save(user);
        
-        // Send deactivation email
-        sendDeactivationEmail(user.getEmail(), user.getName());
+        // Deactivation email is sent from the outbox once this commits
+        outboxService.enqueue(UserEmailHandler.DEACTIVATION_EMAIL, user.getId(),
+                UserEmailHandler.payload(user.getEmail(), user.getName()));
        
         logger.info("Deactivated user ID: {} with role: {}", id, user.getRole());
         return true;
     }
 
-    // Send deactivation email
-    private void sendDeactivationEmail(String email, String name) {
+    // Send deactivation email (delivered from the outbox; failures propagate so the event is retried)
+    void sendDeactivationEmail(String email, String name) throws MessagingException {
         try {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
@@ -963,6 +1076,7 @@ public class UserService implements UserDetailsService {
             logger.info("Deactivation email sent to: {}", email);
         } catch (MessagingException e) {
             logger.error("Failed to send deactivation email to {}: {}", email, e.getMessage());
+            throw e;
         }
     }
 
@@ -0,0 +1,73 @@
+package com.flavorfleet.entity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderStatusTest {
+
+    @Test
+    void movesForwardOneStepAtATime() {
+        assertThat(OrderStatus.PENDING.canTransitionTo(OrderStatus.ACCEPTED)).isTrue();
+        assertThat(OrderStatus.ACCEPTED.canTransitionTo(OrderStatus.PREPARING)).isTrue();
+        assertThat(OrderStatus.PREPARING.canTransitionTo(OrderStatus.OUT_FOR_DELIVERY)).isTrue();
+        assertThat(OrderStatus.OUT_FOR_DELIVERY.canTransitionTo(OrderStatus.DELIVERED)).isTrue();
+
+        assertThat(OrderStatus.PENDING.canTransitionTo(OrderStatus.PREPARING)).isFalse();
+        assertThat(OrderStatus.ACCEPTED.canTransitionTo(OrderStatus.PENDING)).isFalse();
+        assertThat(OrderStatus.PENDING.canTransitionTo(OrderStatus.PENDING)).isFalse();
+    }
+
+    @Test
+    void cancelsOnlyBeforeDispatch() {
+        assertThat(OrderStatus.PENDING.canTransitionTo(OrderStatus.CANCELLED)).isTrue();
+        assertThat(OrderStatus.ACCEPTED.canTransitionTo(OrderStatus.CANCELLED)).isTrue();
+        assertThat(OrderStatus.PREPARING.canTransitionTo(OrderStatus.CANCELLED)).isTrue();
+        assertThat(OrderStatus.OUT_FOR_DELIVERY.canTransitionTo(OrderStatus.CANCELLED)).isFalse();
+    }
+
+    @Test
+    void terminalStatusesHaveNoSuccessors() {
+        for (OrderStatus status : OrderStatus.values()) {
+            assertThat(OrderStatus.DELIVERED.canTransitionTo(status)).isFalse();
+            assertThat(OrderStatus.CANCELLED.canTransitionTo(status)).isFalse();
+        }
+        assertThat(OrderStatus.DELIVERED.isTerminal()).isTrue();
+        assertThat(OrderStatus.PREPARING.isTerminal()).isFalse();
+    }
+
+    @Test
+    void previousStatusesMirrorTransitions() {
+        assertThat(OrderStatus.CANCELLED.previousStatuses())
+                .containsExactly(OrderStatus.PENDING, OrderStatus.ACCEPTED, OrderStatus.PREPARING);
+        assertThat(OrderStatus.DELIVERED.previousStatuses()).containsExactly(OrderStatus.OUT_FOR_DELIVERY);
+        assertThat(OrderStatus.PENDING.previousStatuses()).isEmpty();
+    }
+
+    @Test
+    void codesRoundTrip() {
+        for (OrderStatus status : OrderStatus.values()) {
+            assertThat(OrderStatus.fromCode(status.getCode())).isSameAs(status);
+        }
+        assertThatThrownBy(() -> OrderStatus.fromCode(6)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void parsesRequestSpellings() {
+        assertThat(OrderStatus.parse("Out for delivery")).isEqualTo(OrderStatus.OUT_FOR_DELIVERY);
+        assertThat(OrderStatus.parse(" out-for-delivery ")).isEqualTo(OrderStatus.OUT_FOR_DELIVERY);
+        assertThat(OrderStatus.parse("Confirmed")).isEqualTo(OrderStatus.ACCEPTED);
+        assertThat(OrderStatus.parse("canceled")).isEqualTo(OrderStatus.CANCELLED);
+        assertThatThrownBy(() -> OrderStatus.parse("shipped")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OrderStatus.parse(" ")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void legacyValuesFallBackToPending() {
+        assertThat(OrderStatus.fromLegacy("DELIVERED")).isEqualTo(OrderStatus.DELIVERED);
+        assertThat(OrderStatus.fromLegacy("confirmed")).isEqualTo(OrderStatus.ACCEPTED);
+        assertThat(OrderStatus.fromLegacy("shipped")).isEqualTo(OrderStatus.PENDING);
+        assertThat(OrderStatus.fromLegacy(null)).isEqualTo(OrderStatus.PENDING);
+    }
+}
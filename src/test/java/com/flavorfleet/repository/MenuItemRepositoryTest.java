@@ -0,0 +1,85 @@
+package com.flavorfleet.repository;
+
+import com.flavorfleet.dto.MenuItemDTO;
+import com.flavorfleet.entity.Category;
+import com.flavorfleet.entity.MenuItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class MenuItemRepositoryTest {
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void loadsTheVisibleMenuInOneStatementRegardlessOfSize() {
+        seedMenu("Small", 10, 1);
+        assertThat(countStatements(menuItemRepository::findAllVisible)).isEqualTo(1);
+
+        seedMenu("Large", 20, 50);
+        assertThat(countStatements(menuItemRepository::findAllVisible)).isEqualTo(1);
+        assertThat(menuItemRepository.findAllVisible()).hasSize(1_010);
+    }
+
+    @Test
+    void leavesOutItemsOfDeletedCategories() {
+        Category deleted = new Category("Retired");
+        deleted.setDeleted(true);
+        entityManager.persist(deleted);
+        entityManager.persist(new MenuItem("Old Special", 99.0, null, null, deleted, "Veg"));
+        seedMenu("Live", 1, 2);
+
+        List<MenuItemDTO> items = menuItemRepository.findAllVisible();
+
+        assertThat(items).hasSize(2);
+        assertThat(items).extracting(MenuItemDTO::getName).doesNotContain("Old Special");
+    }
+
+    private void seedMenu(String prefix, int categories, int itemsPerCategory) {
+        for (int c = 0; c < categories; c++) {
+            Category category = new Category(prefix + " " + c);
+            entityManager.persist(category);
+            for (int i = 0; i < itemsPerCategory; i++) {
+                entityManager.persist(new MenuItem(prefix + " item " + c + "-" + i, 100.0 + i, "desc", null, category,
+                        i % 2 == 0 ? "Veg" : "Non-Veg"));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private long countStatements(Runnable load) {
+        statistics.clear();
+        load.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
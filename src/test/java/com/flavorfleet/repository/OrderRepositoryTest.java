@@ -0,0 +1,104 @@
+package com.flavorfleet.repository;
+
+import com.flavorfleet.entity.Order;
+import com.flavorfleet.entity.OrderLine;
+import com.flavorfleet.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class OrderRepositoryTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void listsOrdersWithUsersAndItemsInBoundedStatements() {
+        seedOrders("small", 3, 10);
+        // Orders, users and restaurants in one statement, then one items query per 50 orders
+        assertThat(countStatements(() -> orderRepository.findAll())).isEqualTo(2);
+
+        seedOrders("large", 4, 110);
+        assertThat(countStatements(() -> orderRepository.findAll())).isEqualTo(1 + 3);
+    }
+
+    @Test
+    void listsOneUsersOrdersInBoundedStatements() {
+        List<User> users = seedOrders("single", 1, 60);
+        assertThat(countStatements(() -> orderRepository.findByUserId(users.get(0).getId()))).isEqualTo(1 + 2);
+    }
+
+    @Test
+    void pageCostDoesNotGrowWithPageSize() {
+        seedOrders("paged", 5, 100);
+        assertThat(countStatements(() -> orderRepository.findPage(
+                null, null, null, null, null, null, null, PageRequest.of(0, 10)))).isEqualTo(2);
+        assertThat(countStatements(() -> orderRepository.findPage(
+                null, null, null, null, null, null, null, PageRequest.of(0, 50)))).isEqualTo(2);
+    }
+
+    private List<User> seedOrders(String prefix, int userCount, int orderCount) {
+        List<User> users = new ArrayList<>();
+        for (int u = 0; u < userCount; u++) {
+            User user = new User("Customer " + u, prefix + u + "@example.com", "secret", "USER");
+            entityManager.persist(user);
+            users.add(user);
+        }
+        for (int o = 0; o < orderCount; o++) {
+            Order order = new Order();
+            order.setUser(users.get(o % userCount));
+            order.setTotalPrice(120.0);
+            order.setAddressLine1("12 Market Road");
+            order.setCity("Pune");
+            order.setPincode("411001");
+            order.addItem(new OrderLine(1L, "Paneer Tikka", 60.0, 1, null));
+            order.addItem(new OrderLine(2L, "Garlic Naan", 30.0, 2, null));
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return users;
+    }
+
+    // Loads the orders and touches everything an order listing reads: user, restaurant and items
+    private long countStatements(Supplier<List<Order>> load) {
+        entityManager.clear();
+        statistics.clear();
+        for (Order order : load.get()) {
+            order.getUser().getEmail();
+            order.getUser().getRestaurant();
+            order.getItems().size();
+        }
+        return statistics.getPrepareStatementCount();
+    }
+}
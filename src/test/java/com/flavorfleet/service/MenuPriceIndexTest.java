@@ -0,0 +1,55 @@
+package com.flavorfleet.service;
+
+import com.flavorfleet.dto.MenuItemDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuPriceIndexTest {
+
+    private final MenuPriceIndex index = MenuPriceIndex.build(List.of(
+            item(1L, 250.0, "Starters", "Veg"),
+            item(2L, 320.0, "Starters", "Non-Veg"),
+            item(3L, 180.0, "Main Course", "Veg"),
+            item(4L, 60.0, "Breads", "Veg"),
+            item(5L, 250.0, "Main Course", "Non-Veg"),
+            item(6L, 450.0, "Main Course", "Non-Veg")));
+
+    @Test
+    void returnsEverythingCheapestFirstWithoutFilters() {
+        // Equal prices keep id order
+        assertThat(ids(index.query(null, null, null, null))).containsExactly(4L, 3L, 1L, 5L, 2L, 6L);
+    }
+
+    @Test
+    void priceBoundsAreExclusive() {
+        assertThat(ids(index.query(null, null, 180.0, 320.0))).containsExactly(1L, 5L);
+        assertThat(ids(index.query(null, null, 250.0, null))).containsExactly(2L, 6L);
+        assertThat(ids(index.query(null, null, null, 180.0))).containsExactly(4L);
+    }
+
+    @Test
+    void filtersByTypeCategoryOrBoth() {
+        assertThat(ids(index.query(null, "Veg", null, 200.0))).containsExactly(4L, 3L);
+        assertThat(ids(index.query("Main Course", null, null, null))).containsExactly(3L, 5L, 6L);
+        assertThat(ids(index.query("Main Course", "Non-Veg", 200.0, 500.0))).containsExactly(5L, 6L);
+    }
+
+    @Test
+    void emptyForUnknownKeysAndEmptyRanges() {
+        assertThat(index.query("Desserts", null, null, null)).isEmpty();
+        assertThat(index.query(null, "Vegan", null, null)).isEmpty();
+        assertThat(index.query(null, null, 300.0, 300.0)).isEmpty();
+        assertThat(index.query(null, null, 500.0, 100.0)).isEmpty();
+    }
+
+    private static MenuItemDTO item(Long id, double price, String category, String type) {
+        return new MenuItemDTO(id, "Item " + id, price, null, null, 1L, category, type);
+    }
+
+    private static List<Long> ids(List<MenuItemDTO> items) {
+        return items.stream().map(MenuItemDTO::getId).toList();
+    }
+}
@@ -0,0 +1,115 @@
+package com.flavorfleet.service;
+
+import com.flavorfleet.dto.MenuItemDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MenuSearchIndexTest {
+
+    private MenuCache menuCache;
+    private List<MenuItemDTO> items;
+    private MenuSearchIndex index;
+
+    @BeforeEach
+    void buildIndex() {
+        items = List.of(
+                item(1L, "Paneer Tikka", "Smoky cottage cheese cubes", "Starters", "Veg"),
+                item(2L, "Chicken Tikka", "Boneless chicken from the tandoor", "Starters", "Non-Veg"),
+                item(3L, "Paneer Butter Masala", "Creamy tomato gravy", "Main Course", "Veg"),
+                item(4L, "Garlic Naan", "Leavened bread with garlic butter", "Breads", "Veg"),
+                item(5L, "Tandoori Platter", "Assorted tikka and kebabs", "Starters", "Non-Veg"));
+        menuCache = mock(MenuCache.class);
+        when(menuCache.getSnapshot()).thenReturn(new MenuSnapshot(1, Instant.now(), items, List.of()));
+        index = new MenuSearchIndex(menuCache);
+        index.reindex();
+    }
+
+    @Test
+    void tokenizeLowercasesAndSplitsOnNonAlphanumerics() {
+        assertThat(MenuSearchIndex.tokenize("Paneer Tikka-Masala, 2pcs!"))
+                .containsExactly("paneer", "tikka", "masala", "2pcs");
+        assertThat(MenuSearchIndex.tokenize("  ")).isEmpty();
+        assertThat(MenuSearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void boundedEditDistanceIsExactWithinTheBound() {
+        assertThat(MenuSearchIndex.boundedEditDistance("paneer", "paneer", 1)).isZero();
+        assertThat(MenuSearchIndex.boundedEditDistance("panner", "paneer", 1)).isEqualTo(1);
+        assertThat(MenuSearchIndex.boundedEditDistance("kitten", "sitting", 3)).isEqualTo(3);
+    }
+
+    @Test
+    void boundedEditDistanceStopsAtBoundPlusOne() {
+        assertThat(MenuSearchIndex.boundedEditDistance("kitten", "sitting", 1)).isEqualTo(2);
+        // Length difference alone exceeds the bound
+        assertThat(MenuSearchIndex.boundedEditDistance("naan", "n", 2)).isEqualTo(3);
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        assertThat(ids(index.search("tikka", null, 10))).containsExactly(1L, 2L, 5L);
+    }
+
+    @Test
+    void requiresEveryQueryTerm() {
+        assertThat(ids(index.search("paneer tikka", null, 10))).containsExactly(1L);
+        assertThat(ids(index.search("paneer kebabs", null, 10))).isEmpty();
+    }
+
+    @Test
+    void matchesPrefixesAndTypos() {
+        assertThat(ids(index.search("garl", null, 10))).containsExactly(4L);
+        assertThat(ids(index.search("panner", null, 10))).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void appliesTypeFilterAndLimit() {
+        assertThat(ids(index.search("tikka", "Veg", 10))).containsExactly(1L);
+        assertThat(index.search("tikka", null, 1)).hasSize(1);
+        assertThat(index.search("tikka", null, 0)).isEmpty();
+        assertThat(index.search("!!", null, 10)).isEmpty();
+    }
+
+    @Test
+    void appliesIncrementalChanges() {
+        MenuItemDTO added = item(6L, "Malai Tikka", "", "Starters", "Veg");
+        List<MenuItemDTO> next = new ArrayList<>(items.subList(1, items.size()));
+        next.add(added);
+        when(menuCache.getSnapshot()).thenReturn(new MenuSnapshot(2, Instant.now(), next, List.of()));
+
+        index.onMenuChanged(MenuChangedEvent.itemDeleted(1L));
+        index.onMenuChanged(MenuChangedEvent.itemAdded(added));
+
+        assertThat(ids(index.search("tikka", "Veg", 10))).containsExactly(6L);
+    }
+
+    @Test
+    void skipsSavedItemsTheSnapshotHides() {
+        // Item 2's category was deleted and item 6 was added to it; the snapshot shows neither
+        List<MenuItemDTO> next = new ArrayList<>(items);
+        next.remove(1);
+        when(menuCache.getSnapshot()).thenReturn(new MenuSnapshot(2, Instant.now(), next, List.of()));
+
+        index.onMenuChanged(MenuChangedEvent.itemUpdated(item(2L, "Chicken Tikka", "", "Starters", "Non-Veg")));
+        index.onMenuChanged(MenuChangedEvent.itemAdded(item(6L, "Malai Tikka", "", "Starters", "Veg")));
+
+        assertThat(ids(index.search("tikka", null, 10))).containsExactly(1L, 5L);
+    }
+
+    private static MenuItemDTO item(Long id, String name, String description, String category, String type) {
+        return new MenuItemDTO(id, name, 100.0, description, null, 1L, category, type);
+    }
+
+    private static List<Long> ids(List<MenuItemDTO> items) {
+        return items.stream().map(MenuItemDTO::getId).toList();
+    }
+}
@@ -0,0 +1,40 @@
+package com.flavorfleet.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderCursorTest {
+
+    @Test
+    void roundTripsCreationTimeAndId() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 9, 18, 45, 12, 345_678_000);
+
+        OrderCursor decoded = OrderCursor.decode(new OrderCursor(createdAt, 42L).encode());
+
+        assertThat(decoded.getCreatedAt()).isEqualTo(createdAt);
+        assertThat(decoded.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void encodesToUrlSafeTokenWithoutPadding() {
+        String token = new OrderCursor(LocalDateTime.of(2024, 1, 1, 0, 0), 7L).encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThatThrownBy(() -> OrderCursor.decode("not a cursor!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        // Valid Base64, but not "createdAt|id"
+        assertThatThrownBy(() -> OrderCursor.decode("aGVsbG8"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OrderCursor.decode(new OrderCursor(LocalDateTime.of(2024, 1, 1, 0, 0), null).encode()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,84 @@
+package com.flavorfleet.service;
+
+import com.flavorfleet.dto.CartItemDTO;
+import com.flavorfleet.dto.MenuItemDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderPricingServiceTest {
+
+    private OrderPricingService pricingService;
+
+    @BeforeEach
+    void setUp() {
+        List<MenuItemDTO> menu = List.of(
+                new MenuItemDTO(10L, "Paneer Tikka", 249.5, null, "tikka.png", 1L, "Starters", "Veg"),
+                new MenuItemDTO(20L, "Garlic Naan", 60.0, null, "naan.png", 2L, "Breads", "Veg"),
+                new MenuItemDTO(30L, "Lassi", 0.1, null, null, 3L, "Drinks", "Veg"));
+        MenuCache menuCache = mock(MenuCache.class);
+        when(menuCache.getSnapshot()).thenReturn(new MenuSnapshot(7, Instant.now(), menu, List.of()));
+        pricingService = new OrderPricingService(menuCache);
+    }
+
+    @Test
+    void pricesLinesFromTheMenuSnapshot() {
+        OrderPricingService.PricedOrder priced = pricingService.price(List.of(
+                line(10L, "Paneer Tikka", 249.5, 2),
+                line(20L, "Garlic Naan", null, 3)));
+
+        assertThat(priced.getTotal()).isEqualByComparingTo("679.00");
+        assertThat(priced.getMenuVersion()).isEqualTo(7);
+        assertThat(priced.getLines()).hasSize(2);
+        OrderPricingService.PricedLine first = priced.getLines().get(0);
+        assertThat(first.getName()).isEqualTo("Paneer Tikka");
+        assertThat(first.getUnitPrice()).isEqualByComparingTo("249.50");
+        assertThat(first.getLineTotal()).isEqualByComparingTo("499.00");
+        assertThat(first.getImage()).isEqualTo("tikka.png");
+    }
+
+    @Test
+    void keepsTotalsExactInDecimal() {
+        OrderPricingService.PricedOrder priced = pricingService.price(List.of(line(30L, "Lassi", 0.1, 3)));
+
+        assertThat(priced.getTotal()).isEqualTo(new BigDecimal("0.30"));
+    }
+
+    @Test
+    void rejectsStaleClientPrices() {
+        assertThatThrownBy(() -> pricingService.price(List.of(
+                line(10L, "Paneer Tikka", 229.0, 1),
+                line(20L, "Garlic Naan", 60.0, 1))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Paneer Tikka (now 249.50)");
+    }
+
+    @Test
+    void rejectsItemsNoLongerOnTheMenu() {
+        assertThatThrownBy(() -> pricingService.price(List.of(line(99L, "Old Special", 100.0, 1))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Old Special");
+    }
+
+    @Test
+    void rejectsInvalidLines() {
+        assertThatThrownBy(() -> pricingService.price(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pricingService.price(List.of(line(null, "Mystery", 10.0, 1))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pricingService.price(List.of(line(20L, "Garlic Naan", 60.0, 0))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static CartItemDTO line(Long itemId, String name, Double price, Integer quantity) {
+        return new CartItemDTO(null, itemId, name, price, quantity, null);
+    }
+}